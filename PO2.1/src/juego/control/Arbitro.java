@@ -5,6 +5,8 @@ import juego.modelo.Jugador;
 import juego.modelo.Tablero;
 import juego.util.CoordenadasIncorrectasException;
 
+import java.util.BitSet;
+
 /**
  * Interfaz del arbitro.
  *
@@ -77,4 +79,42 @@ public interface Arbitro {
      */
     boolean esMovimientoLegal(Celda celda);
 
+    /**
+     * Juega una secuencia de jugadas en orden, comprobando cada una antes de aplicarla
+     * y parando en la primera que no se puede realizar. Al terminar, el tablero, las
+     * capturas y el ganador son los de la última jugada aplicada. Si la partida acaba
+     * antes de la última jugada, o ya había acabado, las restantes no se aplican; la
+     * posición devuelta es la misma que para una jugada ilegal y se distinguen porque
+     * {@link #estaAcabado()} devuelve <code>true</code>.
+     *
+     * @param jugadas Índices <code>fila * columnas + columna</code> de las celdas, en orden.
+     * @return Posición en la secuencia de la primera jugada que no se ha aplicado, por ser
+     * ilegal, estar fuera del tablero o haber acabado ya la partida, o -1 si se han aplicado todas.
+     */
+    int jugarSecuencia(int[] jugadas);
+
+    /**
+     * Deshace la última jugada realizada con {@link #jugar(Celda)}, devolviendo las piedras
+     * capturadas, los contadores de capturas, el turno y el historial de ko al estado anterior.
+     *
+     * @return <code>true</code> si se ha deshecho una jugada, <code>false</code> si no había ninguna.
+     */
+    boolean deshacerJugada();
+
+    /**
+     * Vuelve a realizar la última jugada deshecha. Realizar una jugada nueva
+     * descarta las jugadas deshechas.
+     *
+     * @return <code>true</code> si se ha rehecho una jugada, <code>false</code> si no había ninguna.
+     */
+    boolean rehacerJugada();
+
+    /**
+     * Obtiene todos los movimientos legales del jugador con turno de una sola vez.
+     *
+     * @return Conjunto con el índice <code>fila * columnas + columna</code>
+     * de cada celda en la que se puede jugar.
+     */
+    BitSet obtenerMovimientosLegales();
+
 }
@@ -4,6 +4,8 @@ import juego.modelo.*;
 import juego.util.CoordenadasIncorrectasException;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
 /**
  * Arbitro del juego.
@@ -12,9 +14,14 @@ import java.util.ArrayList;
  * @version 2.1
  */
 public abstract class ArbitroAtariGo implements Arbitro {
-    private Tablero tablero;
+    private final Tablero tablero;
     private boolean turno = false;
     private final Jugador[] jugadores = new Jugador[2];
+    private long modificacionesEvaluadas = -1;
+    private Jugador ganador;
+    private boolean acabado;
+    private final List<RegistroJugada> jugadas = new ArrayList<>();
+    private final List<RegistroJugada> deshechas = new ArrayList<>();
 
     /**
      * Constructor del arbitro.
@@ -36,6 +43,7 @@ public abstract class ArbitroAtariGo implements Arbitro {
         for (int i = 0; i < 2; i++) {
             if (jugadores[i] == null) {
                 jugadores[i] = new Jugador(nombre, Color.values()[i]);
+                modificacionesEvaluadas = -1;
                 break;
             }
         }
@@ -67,6 +75,7 @@ public abstract class ArbitroAtariGo implements Arbitro {
     @Override
     public void cambiarTurno() {
         turno = !turno;
+        modificacionesEvaluadas = -1;
     }
 
     /**
@@ -86,20 +95,95 @@ public abstract class ArbitroAtariGo implements Arbitro {
      */
     @Override
     public boolean estaAcabado() {
-        return obtenerGanador() != null || obtenerTablero().estaCompleto();
+        actualizarEstado();
+        return acabado;
     }
 
     /**
-     * Ejecuta una jugada y cambia de turno.
+     * Ejecuta una jugada y cambia de turno, descartando las jugadas deshechas.
      *
      * @param celda Celda en la que realizar jugada.
      * @throws CoordenadasIncorrectasException en caso de que se juegue en una celda que no esté dentro del tablero.
      */
     @Override
     public void jugar(Celda celda) throws CoordenadasIncorrectasException {
+        realizarJugada(celda);
+        deshechas.clear();
+    }
+
+    /**
+     * Deshace la última jugada con el registro guardado en el diario de jugadas, con un
+     * coste proporcional a las piedras que cambian. Las piedras colocadas directamente en
+     * el tablero después de la jugada deben haberse quitado antes. El turno vuelve al
+     * jugador del color de la jugada deshecha, aunque se haya cambiado el turno después.
+     *
+     * @return <code>true</code> si se ha deshecho una jugada, <code>false</code> si no había ninguna.
+     */
+    @Override
+    public boolean deshacerJugada() {
+        if (jugadas.isEmpty()) {
+            return false;
+        }
+        RegistroJugada registro = jugadas.remove(jugadas.size() - 1);
+        obtenerTablero().deshacer(registro);
+        establecerTurno(registro.obtenerColor());
+        olvidarJugada(registro);
+        deshechas.add(registro);
+        return true;
+    }
+
+    /**
+     * Vuelve a realizar la última jugada deshecha con el color que tenía, aunque se haya
+     * cambiado el turno después de deshacerla.
+     *
+     * @return <code>true</code> si se ha rehecho una jugada, <code>false</code> si no había ninguna.
+     */
+    @Override
+    public boolean rehacerJugada() {
+        if (deshechas.isEmpty()) {
+            return false;
+        }
+        RegistroJugada registro = deshechas.remove(deshechas.size() - 1);
+        establecerTurno(registro.obtenerColor());
+        realizarJugada(obtenerTablero().obtenerCeldaConMismasCoordenadas(registro.obtenerCelda()));
+        return true;
+    }
+
+    /**
+     * Da el turno al jugador de un color, que se registra en la misma posición que su
+     * ordinal, sin necesitar que los dos jugadores estén registrados.
+     *
+     * @param color Color del jugador que pasa a tener el turno.
+     */
+    private void establecerTurno(Color color) {
+        turno = color.ordinal() == 1;
+        modificacionesEvaluadas = -1;
+    }
+
+    /**
+     * Obtiene una de las últimas jugadas del diario de jugadas.
+     *
+     * @param atras Número de jugadas hacia atrás, 0 para la última.
+     * @return Registro de la jugada o <code>null</code> si no se han jugado tantas.
+     */
+    protected RegistroJugada obtenerJugadaAnterior(int atras) {
+        int posicion = jugadas.size() - 1 - atras;
+        return posicion >= 0 ? jugadas.get(posicion) : null;
+    }
+
+    /**
+     * Coloca la piedra del jugador con turno, anota la jugada en el diario y cambia de turno.
+     *
+     * @param celda Celda en la que realizar jugada.
+     * @throws CoordenadasIncorrectasException en caso de que se juegue en una celda que no esté dentro del tablero.
+     */
+    private void realizarJugada(Celda celda) throws CoordenadasIncorrectasException {
         try {
-            obtenerTablero().colocar(obtenerJugadorConTurno().generarPiedra(), celda);
+            RegistroJugada registro = obtenerTablero().aplicar(obtenerJugadorConTurno().obtenerColor(), celda);
+            jugadas.add(registro);
+            anotarJugada(registro);
             cambiarTurno();
+            actualizarEstado();
         }
         catch (CoordenadasIncorrectasException e) {
             throw new CoordenadasIncorrectasException("Se ha intentado jugar en una celda que no existe, celda=" +
@@ -114,49 +198,181 @@ public abstract class ArbitroAtariGo implements Arbitro {
      */
     @Override
     public Jugador obtenerGanador() {
-        if (obtenerTablero().obtenerNumeroPiedrasCapturadas(obtenerJugadorConTurno().obtenerColor()) >= obtenerCota()) {
-            return obtenerJugadorSinTurno();
+        actualizarEstado();
+        return ganador;
+    }
+
+    /**
+     * Vuelve a calcular el ganador y si la partida ha acabado, solo si el tablero
+     * ha cambiado o se ha cambiado el turno desde la última vez. Así las consultas
+     * del estado de la partida no recorren los jugadores en cada llamada, aunque
+     * se coloquen piedras directamente en el tablero.
+     */
+    private void actualizarEstado() {
+        long modificaciones = obtenerTablero().obtenerNumeroModificaciones();
+        if (modificaciones != modificacionesEvaluadas) {
+            ganador = calcularGanador();
+            acabado = ganador != null || obtenerTablero().estaCompleto();
+            modificacionesEvaluadas = modificaciones;
+        }
+    }
+
+    /**
+     * Calcula el ganador del juego a partir de las piedras capturadas de cada color,
+     * con {@link ReglasAtariGo#obtenerGanador(Color, int, int, int)}.
+     *
+     * @return Jugador ganador o <code>null</code> si ninguno ha llegado a la cota o
+     * todavía no están registrados los dos jugadores.
+     */
+    private Jugador calcularGanador() {
+        if (obtenerJugadorConTurno() == null || obtenerJugadorSinTurno() == null) {
+            return null;
         }
-        if (obtenerTablero().obtenerNumeroPiedrasCapturadas(obtenerJugadorSinTurno().obtenerColor()) >= obtenerCota()) {
-            return obtenerJugadorConTurno();
+        Color conTurno = obtenerJugadorConTurno().obtenerColor();
+        Color ganador = ReglasAtariGo.obtenerGanador(conTurno,
+                obtenerTablero().obtenerNumeroPiedrasCapturadas(conTurno),
+                obtenerTablero().obtenerNumeroPiedrasCapturadas(obtenerJugadorSinTurno().obtenerColor()),
+                obtenerCota());
+        if (ganador == null) {
+            return null;
         }
-        return null;
+        return ganador == conTurno ? obtenerJugadorConTurno() : obtenerJugadorSinTurno();
     }
 
     /**
      * Comprueba si un movimiento es legal. Comprobando que la celda
      * esté vacía y que el movimiento no resulte en perdida para el jugador.
+     * La decisión se toma con las libertades de los grupos adyacentes, sin jugar
+     * la piedra ni modificar el tablero.
      *
      * @param celda Celda a ser comprobada.
      * @return <code>true</code> si se puede realizar,
      * <code>false</code> en caso contrario.
      */
     public boolean esMovimientoLegal(Celda celda) {
+        return esMovimientoLegalSinJugar(obtenerTablero().obtenerCeldaConMismasCoordenadas(celda));
+    }
+
+    /**
+     * Juega una secuencia de jugadas en orden, parando en la primera que no se puede
+     * realizar. Cada jugada se comprueba con las libertades de los grupos adyacentes,
+     * como en {@link #obtenerMovimientosLegales()}, sin simularla ni copiar el tablero.
+     * Si la partida ha acabado se para igual que ante una jugada ilegal, y
+     * {@link #estaAcabado()} indica cuál de los dos casos se ha dado.
+     *
+     * @param jugadas Índices <code>fila * columnas + columna</code> de las celdas, en orden.
+     * @return Posición en la secuencia de la primera jugada que no se ha aplicado, por ser
+     * ilegal, estar fuera del tablero o haber acabado ya la partida, o -1 si se han aplicado todas.
+     */
+    @Override
+    public int jugarSecuencia(int[] jugadas) {
+        Tablero tablero = obtenerTablero();
+        int columnas = tablero.obtenerNumeroColumnas();
+        int celdas = tablero.obtenerNumeroFilas() * columnas;
+        for (int i = 0; i < jugadas.length; i++) {
+            if (jugadas[i] < 0 || jugadas[i] >= celdas || estaAcabado()) {
+                return i;
+            }
+            Celda celda = tablero.obtenerCelda(jugadas[i] / columnas, jugadas[i] % columnas);
+            if (!esMovimientoLegalSinJugar(celda)) {
+                return i;
+            }
+            jugar(celda);
+        }
+        return -1;
+    }
+
+    /**
+     * Obtiene todos los movimientos legales del jugador con turno en una sola pasada
+     * por el tablero, sin colocar ninguna piedra. Primero se marca, una vez por grupo,
+     * la única libertad de cada grupo rival en atari, que son las únicas celdas en las
+     * que se captura. Una celda vacía sin captura y con alguna vecina vacía no puede ser
+     * suicidio, así que solo se comprueba el ko con el hash tras colocar la piedra; las
+     * demás celdas vacías se deciden como en {@link #esMovimientoLegal(Celda)}.
+     *
+     * @return Conjunto con el índice <code>fila * columnas + columna</code>
+     * de cada celda en la que se puede jugar.
+     */
+    @Override
+    public BitSet obtenerMovimientosLegales() {
+        Tablero tablero = obtenerTablero();
+        int columnas = tablero.obtenerNumeroColumnas();
+        Color propio = obtenerJugadorConTurno().obtenerColor();
+        Color rival = obtenerJugadorSinTurno().obtenerColor();
+        BitSet capturas = new BitSet(tablero.obtenerNumeroFilas() * columnas);
+        for (int i = 0; i < tablero.obtenerNumeroGruposEnAtari(rival); i++) {
+            Celda libertad = tablero.obtenerLibertadDeGrupoEnAtari(rival, i);
+            capturas.set(libertad.obtenerFila() * columnas + libertad.obtenerColumna());
+        }
+        BitSet legales = new BitSet(tablero.obtenerNumeroFilas() * columnas);
+        for (int i = 0; i < tablero.obtenerNumeroFilas(); i++) {
+            for (int j = 0; j < columnas; j++) {
+                Celda celda = tablero.obtenerCelda(i, j);
+                boolean legal;
+                if (!celda.estaVacia()) {
+                    legal = false;
+                } else if (!capturas.get(i * columnas + j) && tablero.obtenerGradosDeLibertad(celda) > 0) {
+                    legal = !esKo(tablero.obtenerHash() ^ Tablero.obtenerClaveZobrist(i, j, propio));
+                } else {
+                    legal = esMovimientoLegalSinJugar(celda);
+                }
+                legales.set(i * columnas + j, legal);
+            }
+        }
+        return legales;
+    }
+
+    /**
+     * Decide si un movimiento es legal sin colocar la piedra. Las piedras propias que
+     * se quitarían y el hash resultante se obtienen de las libertades de los grupos
+     * adyacentes, y la decisión se toma con
+     * {@link ReglasAtariGo#esJugadaLegal(int, int, int, int, boolean)}, la misma que usa
+     * el núcleo de reglas sobre instantáneas.
+     *
+     * @param celda Celda del tablero a ser comprobada.
+     * @return <code>true</code> si se puede realizar,
+     * <code>false</code> en caso contrario.
+     */
+    private boolean esMovimientoLegalSinJugar(Celda celda) {
         if (!celda.estaVacia()) {
             return false;
         }
-        Tablero old = obtenerTablero();
-        this.tablero = old.generarCopia();
-        obtenerTablero().colocar(obtenerJugadorConTurno().generarPiedra(), celda);
-        boolean valid = (obtenerGanador() == obtenerJugadorConTurno() ||
-                obtenerTablero().obtenerNumeroPiedrasCapturadas(obtenerJugadorSinTurno().obtenerColor()) >
-                        old.obtenerNumeroPiedrasCapturadas(obtenerJugadorSinTurno().obtenerColor()) ||
-                obtenerTablero().obtenerNumeroPiedrasCapturadas(obtenerJugadorConTurno().obtenerColor()) ==
-                        old.obtenerNumeroPiedrasCapturadas(obtenerJugadorConTurno().obtenerColor())) &&
-                        ! esKo(obtenerTablero());
-        this.tablero = old;
-        return valid;
+        Tablero tablero = obtenerTablero();
+        Color propio = obtenerJugadorConTurno().obtenerColor();
+        Color rival = obtenerJugadorSinTurno().obtenerColor();
+        return ReglasAtariGo.esJugadaLegal(tablero.contarSuicidioDeJugada(propio, celda),
+                tablero.obtenerNumeroPiedrasCapturadas(propio), tablero.obtenerNumeroPiedrasCapturadas(rival),
+                obtenerCota(), esKo(tablero.obtenerHashTrasJugada(propio, celda)));
     }
 
     /**
      * Comprueba si se produce ko, es decir,
      * el tablero vuelve al mismo estado que la anterior jugada del jugador.
      *
-     * @param tablero Tablero de la jugada a comprobar.
+     * @param hash Hash del tablero tras la jugada a comprobar.
      * @return <code>true</code> si se produce ko en el tablero,
      * <code>false</code> en caso contrario.
      */
-    protected abstract boolean esKo(Tablero tablero);
+    protected abstract boolean esKo(long hash);
+
+    /**
+     * Recibe el registro de cada jugada realizada con {@link #jugar(Celda)}, antes de cambiar
+     * el turno. El registro solo contiene la celda jugada, las piedras capturadas y el hash
+     * resultante, así que guardarlo no copia el tablero.
+     *
+     * @param registro Registro de la jugada.
+     */
+    protected void anotarJugada(RegistroJugada registro) {
+    }
+
+    /**
+     * Recibe el registro de cada jugada deshecha con {@link #deshacerJugada()}, después de
+     * devolver el tablero y el turno al estado anterior a ella.
+     *
+     * @param registro Registro de la jugada deshecha.
+     */
+    protected void olvidarJugada(RegistroJugada registro) {
+    }
 
     /**
      * Obtiene El numero mínimo de piedras que se deben capturar para finalizar el encuentro.
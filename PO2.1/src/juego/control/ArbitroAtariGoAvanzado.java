@@ -1,8 +1,7 @@
 package juego.control;
 
-import juego.modelo.Celda;
+import juego.modelo.RegistroJugada;
 import juego.modelo.Tablero;
-import juego.util.CoordenadasIncorrectasException;
 
 
 /**
@@ -16,7 +15,6 @@ import juego.util.CoordenadasIncorrectasException;
 public class ArbitroAtariGoAvanzado extends ArbitroAtariGo {
 
     private final int cotaNumeroCapturas;
-    private Tablero[] ultimoMovimiento = new Tablero[2];
 
     /**
      * Constructor del arbitro avanzado.
@@ -29,31 +27,23 @@ public class ArbitroAtariGoAvanzado extends ArbitroAtariGo {
         this.cotaNumeroCapturas = cotaNumeroCapturas;
     }
 
-    /**
-     * Ejecuta una jugada y cambia de turno.
-     *
-     * @param celda Celda en la que realizar jugada.
-     * @throws CoordenadasIncorrectasException en caso de que se juegue en una celda que no esté dentro del tablero.
-     */
-    @Override
-    public void jugar(Celda celda) throws CoordenadasIncorrectasException {
-        super.jugar(celda);
-        ultimoMovimiento[obtenerJugadorSinTurno().obtenerColor().ordinal()] = obtenerTablero().generarCopia();
-    }
-
     /**
      * Comprueba si se produce ko, es decir,
      * el tablero vuelve al mismo estado que la anterior jugada del jugador.
+     * El tablero solo puede repetirse si la jugada del rival quitó alguna piedra,
+     * y en ese caso basta con comparar el hash con el que dejó la jugada anterior.
+     * Las dos jugadas se leen del diario, así que deshacer jugadas también deshace el ko.
      *
-     * @param tablero Tablero de la jugada a comprobar.
+     * @param hash Hash del tablero tras la jugada a comprobar.
      * @return <code>true</code> si se produce ko en el tablero,
      * <code>false</code> en caso contrario.
      */
     @Override
-    protected boolean esKo(Tablero tablero) {
-        int jugador = obtenerJugadorConTurno().obtenerColor().ordinal();
-        return ultimoMovimiento[jugador] != null &&
-                tablero.esIgual(ultimoMovimiento[jugador]);
+    protected boolean esKo(long hash) {
+        RegistroJugada propia = obtenerJugadaAnterior(1);
+        RegistroJugada rival = obtenerJugadaAnterior(0);
+        return propia != null && rival != null && rival.obtenerNumeroPiedrasCapturadas() > 0 &&
+                hash == propia.obtenerHashPosterior();
     }
 
     /**
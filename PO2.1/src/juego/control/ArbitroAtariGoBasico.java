@@ -23,11 +23,11 @@ public class ArbitroAtariGoBasico extends ArbitroAtariGo {
      * Comprueba si se produce ko, es decir,
      * el tablero vuelve al mismo estado que la anterior jugada del jugador.
      *
-     * @param tablero Tablero de la jugada a comprobar.
+     * @param hash Hash del tablero tras la jugada a comprobar.
      * @return <code>false</code> en ArbitroBasico.
      */
     @Override
-    protected boolean esKo(Tablero tablero) {
+    protected boolean esKo(long hash) {
         return false;
     }
 
@@ -0,0 +1,66 @@
+package juego.control;
+
+import juego.modelo.RegistroJugada;
+import juego.modelo.Tablero;
+import juego.util.ConjuntoDeHashes;
+
+/**
+ * Arbitro Avanzado con la regla de superko posicional: no se permite ninguna
+ * jugada que devuelva el tablero a una posición que ya se haya dado en la partida,
+ * por lejana que sea. Las posiciones se guardan solo por su hash.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+public class ArbitroAtariGoSuperko extends ArbitroAtariGoAvanzado {
+
+    private final ConjuntoDeHashes posiciones = new ConjuntoDeHashes();
+
+    /**
+     * Constructor del arbitro con superko.
+     *
+     * @param tablero Tablero del juego.
+     * @param cotaNumeroCapturas Número de piedras a ser capturadas para ganar.
+     */
+    public ArbitroAtariGoSuperko(Tablero tablero, int cotaNumeroCapturas) {
+        super(tablero, cotaNumeroCapturas);
+        posiciones.añadir(tablero.obtenerHash());
+    }
+
+    /**
+     * Guarda la posición resultante de cada jugada.
+     *
+     * @param registro Registro de la jugada.
+     */
+    @Override
+    protected void anotarJugada(RegistroJugada registro) {
+        super.anotarJugada(registro);
+        posiciones.añadir(registro.obtenerHashPosterior());
+    }
+
+    /**
+     * Quita la posición resultante de la jugada deshecha. Si las jugadas se han comprobado
+     * con {@link #esMovimientoLegal(juego.modelo.Celda)}, ninguna repite posición, así que
+     * ninguna otra jugada del diario la ha añadido.
+     *
+     * @param registro Registro de la jugada deshecha.
+     */
+    @Override
+    protected void olvidarJugada(RegistroJugada registro) {
+        super.olvidarJugada(registro);
+        posiciones.quitar(registro.obtenerHashPosterior());
+    }
+
+    /**
+     * Comprueba si se produce superko, es decir,
+     * el tablero vuelve a cualquier posición anterior de la partida.
+     *
+     * @param hash Hash del tablero tras la jugada a comprobar.
+     * @return <code>true</code> si la posición ya se había dado,
+     * <code>false</code> en caso contrario.
+     */
+    @Override
+    protected boolean esKo(long hash) {
+        return posiciones.contiene(hash);
+    }
+}
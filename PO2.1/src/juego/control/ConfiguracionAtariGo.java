@@ -1,5 +1,7 @@
 package juego.control;
 
+import juego.modelo.Tablero;
+
 /**
  * Configuración del juego.
  *
@@ -32,6 +34,19 @@ public class ConfiguracionAtariGo {
      */
     public static final int MAXIMO_CAPTURAS = 10;
 
+    /**
+     * Tamaño máximo de los tableros personalizados. Solo se pueden crear desde código
+     * con {@link #generarTablero(int, int)}: la interfaz de texto nombra las columnas
+     * con letras y únicamente ofrece los tamaños permitidos.
+     */
+    public static final int TAMAÑO_MAXIMO_PERSONALIZADO = 1000;
+
+    /**
+     * Número de celdas a partir del cual se usa un tablero disperso, que solo
+     * guarda las celdas ocupadas.
+     */
+    public static final int CELDAS_MINIMAS_TABLERO_DISPERSO = Tablero.CELDAS_MINIMAS_TABLERO_DISPERSO;
+
     /**
      * Constructor privado vacío de clase estática.
      */
@@ -69,6 +84,30 @@ public class ConfiguracionAtariGo {
         return false;
     }
 
+    /**
+     * Comprueba que un tamaño de tablero personalizado sea válido.
+     *
+     * @param tamaño Número de filas o de columnas.
+     * @return <code>true</code> si está entre 1 y {@link #TAMAÑO_MAXIMO_PERSONALIZADO}, si no, <code>false</code>.
+     */
+    public static boolean esTamañoPersonalizadoValido(int tamaño) {
+        return tamaño > 0 && tamaño <= TAMAÑO_MAXIMO_PERSONALIZADO;
+    }
+
+    /**
+     * Crea un tablero vacío del tamaño indicado con {@link Tablero#generarTablero(int, int)},
+     * que usa la misma elección entre denso y disperso al restaurar instantáneas: los
+     * tableros con al menos {@link #CELDAS_MINIMAS_TABLERO_DISPERSO} celdas son dispersos.
+     *
+     * @param filas    Número de filas, con un tamaño personalizado válido.
+     * @param columnas Número de columnas, con un tamaño personalizado válido.
+     * @return Tablero nuevo.
+     */
+    public static Tablero generarTablero(int filas, int columnas) {
+        assert esTamañoPersonalizadoValido(filas) && esTamañoPersonalizadoValido(columnas);
+        return Tablero.generarTablero(filas, columnas);
+    }
+
     /**
      * Genera un String con ayuda sobre la configuración.
      *
@@ -0,0 +1,142 @@
+package juego.control;
+
+import juego.modelo.Color;
+import juego.modelo.Instantanea;
+import juego.util.ConjuntoDeHashes;
+import juego.util.CoordenadasIncorrectasException;
+
+/**
+ * Reglas del Atari Go como funciones sin estado. Trabajan sobre instantáneas
+ * inmutables o sobre los contadores de una posición y no guardan nada entre llamadas,
+ * así que varios hilos pueden evaluar posiciones a la vez sin sincronizarse.
+ * Los árbitros delegan en ellas y solo añaden los jugadores, el turno y el historial.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+public final class ReglasAtariGo {
+
+    /**
+     * Oculta el constructor público.
+     */
+    private ReglasAtariGo() {
+        throw new IllegalStateException("Utility singleton class");
+    }
+
+    /**
+     * Evalúa una jugada sobre una posición sin regla de ko.
+     *
+     * @param posicion Posición de partida.
+     * @param color    Color del jugador que juega.
+     * @param fila     Fila de la jugada.
+     * @param columna  Columna de la jugada.
+     * @param cota     Número de piedras a capturar para ganar.
+     * @return Resultado de la jugada.
+     * @throws CoordenadasIncorrectasException en caso de que la posición no esté dentro del tablero.
+     */
+    public static ResultadoJugada jugar(Instantanea posicion, Color color, int fila, int columna, int cota)
+            throws CoordenadasIncorrectasException {
+        return jugar(posicion, color, fila, columna, cota, null);
+    }
+
+    /**
+     * Evalúa una jugada sobre una posición. La jugada no es legal si la posición está
+     * ocupada, si es un suicidio no permitido o si la posición resultante está entre
+     * las prohibidas por el ko. El conjunto de prohibidas solo se consulta, así que
+     * puede compartirse entre hilos mientras nadie lo modifique.
+     *
+     * @param posicion              Posición de partida.
+     * @param color                 Color del jugador que juega.
+     * @param fila                  Fila de la jugada.
+     * @param columna               Columna de la jugada.
+     * @param cota                  Número de piedras a capturar para ganar.
+     * @param posicionesProhibidas  Hashes de las posiciones a las que no se puede llegar,
+     *                              o <code>null</code> si no hay ko.
+     * @return Resultado de la jugada.
+     * @throws CoordenadasIncorrectasException en caso de que la posición no esté dentro del tablero.
+     */
+    public static ResultadoJugada jugar(Instantanea posicion, Color color, int fila, int columna, int cota,
+                                        ConjuntoDeHashes posicionesProhibidas) throws CoordenadasIncorrectasException {
+        Color rival = color == Color.BLANCO ? Color.NEGRO : Color.BLANCO;
+        if (!posicion.estaVacia(fila, columna)) {
+            return new ResultadoJugada(posicion, 0, false, obtenerGanador(posicion, color, cota));
+        }
+        Instantanea resultante = posicion.generarInstantaneaTrasJugada(color, fila, columna);
+        int capturadasPropias = posicion.obtenerNumeroPiedrasCapturadas(color);
+        int capturadasRivales = posicion.obtenerNumeroPiedrasCapturadas(rival);
+        int suicidio = resultante.obtenerNumeroPiedrasCapturadas(color) - capturadasPropias;
+        if (!esJugadaLegal(suicidio, capturadasPropias, capturadasRivales, cota,
+                posicionesProhibidas != null && posicionesProhibidas.contiene(resultante.obtenerHash()))) {
+            return new ResultadoJugada(posicion, 0, false, obtenerGanador(posicion, color, cota));
+        }
+        int capturadas = suicidio + resultante.obtenerNumeroPiedrasCapturadas(rival) - capturadasRivales;
+        return new ResultadoJugada(resultante, capturadas, true, obtenerGanador(resultante, rival, cota));
+    }
+
+    /**
+     * Decide si una jugada en una celda vacía es legal: no lo es si es un suicidio no
+     * permitido o si la posición resultante está prohibida por el ko. Los árbitros y
+     * {@link #jugar(Instantanea, Color, int, int, int, ConjuntoDeHashes)} deciden con ella,
+     * cada uno calculando los datos a su manera.
+     *
+     * @param suicidio          Piedras propias que quitaría la jugada, 0 si no es suicidio.
+     * @param capturadasPropias Piedras propias capturadas antes de la jugada.
+     * @param capturadasRivales Piedras rivales capturadas antes de la jugada.
+     * @param cota              Número de piedras a capturar para ganar.
+     * @param esKo              <code>true</code> si la posición resultante está prohibida.
+     * @return <code>true</code> si la jugada es legal.
+     */
+    public static boolean esJugadaLegal(int suicidio, int capturadasPropias, int capturadasRivales, int cota,
+                                        boolean esKo) {
+        return esSuicidioPermitido(suicidio, capturadasPropias, capturadasRivales, cota) && !esKo;
+    }
+
+    /**
+     * Decide si una jugada que quita piedras propias está permitida: solo lo está si
+     * el rival ya ha llegado a la cota y las piedras perdidas no la alcanzan.
+     *
+     * @param suicidio          Piedras propias que quitaría la jugada, 0 si no es suicidio.
+     * @param capturadasPropias Piedras propias capturadas antes de la jugada.
+     * @param capturadasRivales Piedras rivales capturadas antes de la jugada.
+     * @param cota              Número de piedras a capturar para ganar.
+     * @return <code>true</code> si la jugada no es suicidio o el suicidio está permitido.
+     */
+    public static boolean esSuicidioPermitido(int suicidio, int capturadasPropias, int capturadasRivales, int cota) {
+        return suicidio == 0 || (capturadasPropias + suicidio < cota && capturadasRivales >= cota);
+    }
+
+    /**
+     * Obtiene el color ganador de una posición.
+     *
+     * @param posicion Posición a comprobar.
+     * @param conTurno Color del jugador al que le toca jugar.
+     * @param cota     Número de piedras a capturar para ganar.
+     * @return Color ganador o <code>null</code> si nadie ha llegado a la cota.
+     */
+    public static Color obtenerGanador(Instantanea posicion, Color conTurno, int cota) {
+        Color sinTurno = conTurno == Color.BLANCO ? Color.NEGRO : Color.BLANCO;
+        return obtenerGanador(conTurno, posicion.obtenerNumeroPiedrasCapturadas(conTurno),
+                posicion.obtenerNumeroPiedrasCapturadas(sinTurno), cota);
+    }
+
+    /**
+     * Obtiene el color ganador a partir de las piedras capturadas de cada color. Si los dos
+     * han llegado a la cota gana el que no tiene turno, cuya jugada acabó la partida.
+     *
+     * @param conTurno           Color del jugador al que le toca jugar.
+     * @param capturadasConTurno Piedras capturadas del jugador con turno.
+     * @param capturadasSinTurno Piedras capturadas del jugador sin turno.
+     * @param cota               Número de piedras a capturar para ganar.
+     * @return Color ganador o <code>null</code> si nadie ha llegado a la cota.
+     */
+    public static Color obtenerGanador(Color conTurno, int capturadasConTurno, int capturadasSinTurno, int cota) {
+        Color sinTurno = conTurno == Color.BLANCO ? Color.NEGRO : Color.BLANCO;
+        if (capturadasConTurno >= cota) {
+            return sinTurno;
+        }
+        if (capturadasSinTurno >= cota) {
+            return conTurno;
+        }
+        return null;
+    }
+}
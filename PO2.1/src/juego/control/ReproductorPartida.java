@@ -0,0 +1,99 @@
+package juego.control;
+
+import juego.modelo.Color;
+import juego.modelo.Instantanea;
+import juego.modelo.Tablero;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reproductor de una partida grabada que permite saltar a cualquier número de jugada.
+ * Al crearlo juega la partida una vez con un árbitro y guarda una instantánea cada
+ * cierto número de jugadas; como las instantáneas comparten las filas que no cambian,
+ * los puntos de control ocupan poco. Ir a una jugada parte del punto de control anterior,
+ * o de la última posición obtenida si está más cerca, así que nunca repite más jugadas
+ * que el intervalo entre puntos de control.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+public class ReproductorPartida {
+    private final int[] jugadas;
+    private final int intervalo;
+    private final int columnas;
+    private final Color primerColor;
+    private final Color segundoColor;
+    private final List<Instantanea> puntosDeControl = new ArrayList<>();
+    private Instantanea actual;
+    private int numeroActual;
+
+    /**
+     * Constructor del reproductor. Juega las jugadas con el árbitro, que queda en la
+     * posición final, y para en la primera que no se pueda realizar.
+     *
+     * @param arbitro   Árbitro con los jugadores registrados y sin jugadas realizadas.
+     * @param jugadas   Índices <code>fila * columnas + columna</code> de las celdas, en orden.
+     * @param intervalo Número de jugadas entre dos puntos de control, mayor que 0.
+     */
+    public ReproductorPartida(Arbitro arbitro, int[] jugadas, int intervalo) {
+        assert intervalo > 0;
+        Tablero tablero = arbitro.obtenerTablero();
+        this.intervalo = intervalo;
+        this.columnas = tablero.obtenerNumeroColumnas();
+        this.primerColor = arbitro.obtenerJugadorConTurno().obtenerColor();
+        this.segundoColor = arbitro.obtenerJugadorSinTurno().obtenerColor();
+        actual = tablero.obtenerInstantanea();
+        puntosDeControl.add(actual);
+        int aplicadas = 0;
+        while (aplicadas < jugadas.length) {
+            int fin = Math.min(aplicadas + intervalo, jugadas.length);
+            int fallo = arbitro.jugarSecuencia(Arrays.copyOfRange(jugadas, aplicadas, fin));
+            if (fallo != -1) {
+                aplicadas += fallo;
+                break;
+            }
+            aplicadas = fin;
+            if (aplicadas % intervalo == 0) {
+                puntosDeControl.add(tablero.obtenerInstantanea());
+            }
+        }
+        this.jugadas = Arrays.copyOf(jugadas, aplicadas);
+    }
+
+    /**
+     * Obtiene el número de jugadas de la partida que se han podido realizar.
+     *
+     * @return Número de jugadas.
+     */
+    public int obtenerNumeroJugadas() {
+        return jugadas.length;
+    }
+
+    /**
+     * Obtiene la posición tras un número de jugadas.
+     *
+     * @param numero Número de jugadas realizadas, entre 0 y {@link #obtenerNumeroJugadas()}.
+     * @return Posición de la partida tras esas jugadas.
+     */
+    public Instantanea irAJugada(int numero) {
+        if (numero < 0 || numero > jugadas.length) {
+            throw new IllegalArgumentException("No existe la jugada " + numero + ", la partida tiene " +
+                    jugadas.length);
+        }
+        int desde = numero / intervalo * intervalo;
+        Instantanea posicion = puntosDeControl.get(numero / intervalo);
+        if (numeroActual <= numero && numeroActual > desde) {
+            desde = numeroActual;
+            posicion = actual;
+        }
+        for (int i = desde; i < numero; i++) {
+            posicion = posicion.generarInstantaneaTrasJugada(i % 2 == 0 ? primerColor : segundoColor,
+                    jugadas[i] / columnas, jugadas[i] % columnas);
+        }
+        actual = posicion;
+        numeroActual = numero;
+        return posicion;
+    }
+}
@@ -0,0 +1,81 @@
+package juego.control;
+
+import juego.modelo.Color;
+import juego.modelo.Instantanea;
+
+/**
+ * Resultado inmutable de evaluar una jugada con {@link ReglasAtariGo}: la posición
+ * resultante, las piedras que se han quitado del tablero, si la jugada es legal
+ * y el color ganador, si lo hay.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+public final class ResultadoJugada {
+    private final Instantanea posicion;
+    private final int piedrasCapturadas;
+    private final boolean legal;
+    private final Color ganador;
+
+    /**
+     * Constructor del resultado.
+     *
+     * @param posicion          Posición tras la jugada, o la de partida si no es legal.
+     * @param piedrasCapturadas Piedras quitadas del tablero por la jugada.
+     * @param legal             Si la jugada se puede realizar.
+     * @param ganador           Color ganador tras la jugada, o <code>null</code> si no lo hay.
+     */
+    ResultadoJugada(Instantanea posicion, int piedrasCapturadas, boolean legal, Color ganador) {
+        this.posicion = posicion;
+        this.piedrasCapturadas = piedrasCapturadas;
+        this.legal = legal;
+        this.ganador = ganador;
+    }
+
+    /**
+     * Obtiene la posición tras la jugada. Si la jugada no es legal, es la posición de partida.
+     *
+     * @return Posición resultante.
+     */
+    public Instantanea obtenerPosicion() {
+        return posicion;
+    }
+
+    /**
+     * Obtiene el número de piedras que la jugada ha quitado del tablero,
+     * rivales si ha capturado o propias si ha sido un suicidio.
+     *
+     * @return Número de piedras capturadas, 0 si la jugada no es legal.
+     */
+    public int obtenerNumeroPiedrasCapturadas() {
+        return piedrasCapturadas;
+    }
+
+    /**
+     * Obtiene si la jugada se puede realizar.
+     *
+     * @return <code>true</code> si es legal, <code>false</code> en caso contrario.
+     */
+    public boolean esLegal() {
+        return legal;
+    }
+
+    /**
+     * Obtiene el color ganador en la posición resultante.
+     *
+     * @return Color ganador o <code>null</code> si nadie ha llegado a la cota.
+     */
+    public Color obtenerGanador() {
+        return ganador;
+    }
+
+    /**
+     * Información del objeto en String.
+     *
+     * @return String del objeto.
+     */
+    public String toString() {
+        return "ResultadoJugada{ legal=" + legal + ", capturadas=" + piedrasCapturadas +
+                ", ganador=" + ganador + ", posicion=" + posicion + " }";
+    }
+}
@@ -0,0 +1,146 @@
+package juego.modelo;
+
+import juego.util.Sentido;
+
+/**
+ * Forma de numerar las celdas de un tablero y de asignarles una ranura en los
+ * vectores de grupos y libertades de {@link Tablero}. El tablero implementa las
+ * reglas una sola vez sobre índices y ranuras, y cada almacén decide cuánta
+ * memoria reserva: uno por celda o solo para las celdas ocupadas.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+abstract class AlmacenDeCeldas {
+    /**
+     * Índice de las posiciones que quedan fuera del tablero, sin ranura.
+     */
+    static final int FUERA = -1;
+
+    /**
+     * Sentidos en los que se buscan las celdas vecinas, en el orden de sus ordinales.
+     */
+    static final Sentido[] SENTIDOS = Sentido.values();
+
+    private final int filas;
+    private final int columnas;
+
+    /**
+     * Constructor del almacén.
+     *
+     * @param filas    número de filas
+     * @param columnas número columnas
+     */
+    AlmacenDeCeldas(int filas, int columnas) {
+        assert filas > 0 && columnas > 0;
+        this.filas = filas;
+        this.columnas = columnas;
+    }
+
+    /**
+     * Devuelve el número de filas.
+     *
+     * @return número de filas.
+     */
+    int obtenerNumeroFilas() {
+        return filas;
+    }
+
+    /**
+     * Devuelve el número de columnas.
+     *
+     * @return número de columnas.
+     */
+    int obtenerNumeroColumnas() {
+        return columnas;
+    }
+
+    /**
+     * Obtiene el índice de una posición del tablero.
+     *
+     * @param fila    Fila de la posición.
+     * @param columna Columna de la posición.
+     * @return Índice de la posición.
+     */
+    abstract int obtenerIndice(int fila, int columna);
+
+    /**
+     * Obtiene la fila de un índice.
+     *
+     * @param indice Índice de una posición del tablero.
+     * @return Fila de la posición.
+     */
+    abstract int obtenerFila(int indice);
+
+    /**
+     * Obtiene la columna de un índice.
+     *
+     * @param indice Índice de una posición del tablero.
+     * @return Columna de la posición.
+     */
+    abstract int obtenerColumna(int indice);
+
+    /**
+     * Obtiene el índice de la celda vecina a otra en un sentido.
+     *
+     * @param indice  Índice de una posición del tablero.
+     * @param sentido Ordinal del sentido en {@link #SENTIDOS}.
+     * @return Índice de la vecina; si queda fuera del tablero, un índice cuya ranura
+     * tiene el código de borde o {@link #FUERA}.
+     */
+    abstract int obtenerVecino(int indice, int sentido);
+
+    /**
+     * Obtiene la ranura de un índice.
+     *
+     * @param indice Índice de una posición, o {@link #FUERA}.
+     * @return Ranura del índice, o -1 si no tiene.
+     */
+    abstract int obtenerRanura(int indice);
+
+    /**
+     * Obtiene el índice al que pertenece una ranura ocupada.
+     *
+     * @param ranura Ranura menor que {@link #obtenerNumeroRanuras()}.
+     * @return Índice de la ranura.
+     */
+    abstract int obtenerIndiceDeRanura(int ranura);
+
+    /**
+     * Asigna una ranura a un índice que pasa a estar ocupado.
+     *
+     * @param indice Índice de la celda.
+     * @return Ranura del índice.
+     */
+    abstract int ocupar(int indice);
+
+    /**
+     * Deja libre la ranura de un índice que deja de estar ocupado, si el almacén
+     * no la conserva para las celdas vacías.
+     *
+     * @param indice Índice de la celda.
+     */
+    abstract void liberar(int indice);
+
+    /**
+     * Obtiene el número de ranuras que se han usado alguna vez; todas las ranuras
+     * ocupadas son menores que este número.
+     *
+     * @return Número de ranuras.
+     */
+    abstract int obtenerNumeroRanuras();
+
+    /**
+     * Indica si las celdas vacías tienen su propia ranura, que nunca se libera.
+     *
+     * @return <code>true</code> si hay una ranura por celda del tablero.
+     */
+    abstract boolean reservaCeldasVacias();
+
+    /**
+     * Crea una copia independiente del almacén.
+     *
+     * @return Copia.
+     */
+    abstract AlmacenDeCeldas generarCopia();
+}
@@ -0,0 +1,142 @@
+package juego.modelo;
+
+/**
+ * Almacén con una ranura por celda. Las celdas se numeran en un único vector
+ * rodeado por un borde de una celda, de modo que los vecinos de un índice son
+ * siempre índice±1 e índice±ancho y la ranura de cada índice es el propio índice.
+ * Las ranuras del borde nunca se ocupan y el tablero las marca como borde.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+class AlmacenDenso extends AlmacenDeCeldas {
+    private final int ancho;
+    private final int longitud;
+    private final int[] desplazamientos;
+
+    /**
+     * Constructor del almacén.
+     *
+     * @param filas    número de filas
+     * @param columnas número columnas
+     */
+    AlmacenDenso(int filas, int columnas) {
+        super(filas, columnas);
+        ancho = columnas + 2;
+        longitud = (filas + 2) * ancho;
+        desplazamientos = new int[SENTIDOS.length];
+        for (int i = 0; i < SENTIDOS.length; i++) {
+            desplazamientos[i] = SENTIDOS[i].obtenerDesplazamientoFila() * ancho
+                    + SENTIDOS[i].obtenerDesplazamientoColumna();
+        }
+    }
+
+    /**
+     * Obtiene el índice de una posición en el vector con borde.
+     *
+     * @param fila    Fila de la posición.
+     * @param columna Columna de la posición.
+     * @return Índice de la posición.
+     */
+    int obtenerIndice(int fila, int columna) {
+        return (fila + 1) * ancho + columna + 1;
+    }
+
+    /**
+     * Obtiene la fila de un índice del vector con borde.
+     *
+     * @param indice Índice de una posición del tablero.
+     * @return Fila de la posición.
+     */
+    int obtenerFila(int indice) {
+        return indice / ancho - 1;
+    }
+
+    /**
+     * Obtiene la columna de un índice del vector con borde.
+     *
+     * @param indice Índice de una posición del tablero.
+     * @return Columna de la posición.
+     */
+    int obtenerColumna(int indice) {
+        return indice % ancho - 1;
+    }
+
+    /**
+     * Obtiene el índice de la celda vecina sumando el desplazamiento del sentido;
+     * las vecinas de fuera del tablero son posiciones del borde.
+     *
+     * @param indice  Índice de una posición del tablero.
+     * @param sentido Ordinal del sentido.
+     * @return Índice de la vecina.
+     */
+    int obtenerVecino(int indice, int sentido) {
+        return indice + desplazamientos[sentido];
+    }
+
+    /**
+     * Obtiene la ranura de un índice, que es el propio índice.
+     *
+     * @param indice Índice de una posición.
+     * @return Ranura del índice.
+     */
+    int obtenerRanura(int indice) {
+        return indice;
+    }
+
+    /**
+     * Obtiene el índice de una ranura, que es la propia ranura.
+     *
+     * @param ranura Ranura.
+     * @return Índice de la ranura.
+     */
+    int obtenerIndiceDeRanura(int ranura) {
+        return ranura;
+    }
+
+    /**
+     * Obtiene la ranura de un índice que pasa a estar ocupado.
+     *
+     * @param indice Índice de la celda.
+     * @return Ranura del índice.
+     */
+    int ocupar(int indice) {
+        return indice;
+    }
+
+    /**
+     * No hace nada, la ranura se conserva para la celda vacía.
+     *
+     * @param indice Índice de la celda.
+     */
+    void liberar(int indice) {
+        assert indice >= 0 && indice < longitud;
+    }
+
+    /**
+     * Obtiene el número de ranuras, incluidas las del borde.
+     *
+     * @return Número de ranuras.
+     */
+    int obtenerNumeroRanuras() {
+        return longitud;
+    }
+
+    /**
+     * Indica que las celdas vacías tienen su propia ranura.
+     *
+     * @return <code>true</code>.
+     */
+    boolean reservaCeldasVacias() {
+        return true;
+    }
+
+    /**
+     * Devuelve el mismo almacén, que no cambia después de crearlo.
+     *
+     * @return Este almacén.
+     */
+    AlmacenDeCeldas generarCopia() {
+        return this;
+    }
+}
@@ -0,0 +1,168 @@
+package juego.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Almacén que solo da ranura a las celdas ocupadas. Los índices se numeran fila a
+ * fila sin borde y una tabla de dispersión asigna a cada índice ocupado una ranura;
+ * las ranuras de las piedras capturadas se reutilizan, así que su número depende de
+ * las piedras y no del área del tablero.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+class AlmacenDisperso extends AlmacenDeCeldas {
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private final MapaDeIndices ranuras;
+    private int numeroRanuras = 0;
+    private int[] indices;
+    private int[] ranurasLibres;
+    private int numeroRanurasLibres = 0;
+
+    /**
+     * Constructor, crea un almacén sin ninguna ranura ocupada.
+     *
+     * @param filas    número de filas
+     * @param columnas número columnas
+     */
+    AlmacenDisperso(int filas, int columnas) {
+        super(filas, columnas);
+        assert (long) filas * columnas <= Integer.MAX_VALUE;
+        ranuras = new MapaDeIndices();
+        indices = new int[CAPACIDAD_INICIAL];
+        ranurasLibres = new int[CAPACIDAD_INICIAL];
+    }
+
+    /**
+     * Obtiene el índice de una posición, fila a fila y sin borde.
+     *
+     * @param fila    Fila de la posición.
+     * @param columna Columna de la posición.
+     * @return Índice de la posición.
+     */
+    int obtenerIndice(int fila, int columna) {
+        return fila * obtenerNumeroColumnas() + columna;
+    }
+
+    /**
+     * Obtiene la fila de un índice.
+     *
+     * @param indice Índice de una posición del tablero.
+     * @return Fila de la posición.
+     */
+    int obtenerFila(int indice) {
+        return indice / obtenerNumeroColumnas();
+    }
+
+    /**
+     * Obtiene la columna de un índice.
+     *
+     * @param indice Índice de una posición del tablero.
+     * @return Columna de la posición.
+     */
+    int obtenerColumna(int indice) {
+        return indice % obtenerNumeroColumnas();
+    }
+
+    /**
+     * Obtiene el índice de la celda vecina a otra en un sentido.
+     *
+     * @param indice  Índice de una posición del tablero.
+     * @param sentido Ordinal del sentido.
+     * @return Índice de la vecina, o {@link #FUERA} si queda fuera del tablero.
+     */
+    int obtenerVecino(int indice, int sentido) {
+        int fila = obtenerFila(indice) + SENTIDOS[sentido].obtenerDesplazamientoFila();
+        int columna = obtenerColumna(indice) + SENTIDOS[sentido].obtenerDesplazamientoColumna();
+        if (fila < 0 || fila >= obtenerNumeroFilas() || columna < 0 || columna >= obtenerNumeroColumnas()) {
+            return FUERA;
+        }
+        return obtenerIndice(fila, columna);
+    }
+
+    /**
+     * Obtiene la ranura de un índice consultando la tabla de dispersión.
+     *
+     * @param indice Índice de una posición, o {@link #FUERA}.
+     * @return Ranura del índice, o -1 si la celda está vacía o fuera del tablero.
+     */
+    int obtenerRanura(int indice) {
+        return indice == FUERA ? -1 : ranuras.obtener(indice);
+    }
+
+    /**
+     * Obtiene el índice al que pertenece una ranura ocupada.
+     *
+     * @param ranura Ranura.
+     * @return Índice de la ranura.
+     */
+    int obtenerIndiceDeRanura(int ranura) {
+        return indices[ranura];
+    }
+
+    /**
+     * Asigna a un índice una ranura libre, o una nueva si no queda ninguna.
+     *
+     * @param indice Índice de la celda.
+     * @return Ranura del índice.
+     */
+    int ocupar(int indice) {
+        int ranura;
+        if (numeroRanurasLibres > 0) {
+            ranura = ranurasLibres[--numeroRanurasLibres];
+        } else {
+            if (numeroRanuras == indices.length) {
+                indices = Arrays.copyOf(indices, numeroRanuras * 2);
+                ranurasLibres = Arrays.copyOf(ranurasLibres, numeroRanuras * 2);
+            }
+            ranura = numeroRanuras++;
+        }
+        ranuras.poner(indice, ranura);
+        indices[ranura] = indice;
+        return ranura;
+    }
+
+    /**
+     * Libera la ranura de un índice para que la use la próxima celda que se ocupe.
+     *
+     * @param indice Índice de la celda.
+     */
+    void liberar(int indice) {
+        ranurasLibres[numeroRanurasLibres++] = ranuras.obtener(indice);
+        ranuras.quitar(indice);
+    }
+
+    /**
+     * Obtiene el número de ranuras que se han usado alguna vez.
+     *
+     * @return Número de ranuras.
+     */
+    int obtenerNumeroRanuras() {
+        return numeroRanuras;
+    }
+
+    /**
+     * Indica que las celdas vacías no tienen ranura.
+     *
+     * @return <code>false</code>.
+     */
+    boolean reservaCeldasVacias() {
+        return false;
+    }
+
+    /**
+     * Crea una copia independiente del almacén, con las mismas ranuras.
+     *
+     * @return Copia.
+     */
+    AlmacenDeCeldas generarCopia() {
+        AlmacenDisperso copia = new AlmacenDisperso(obtenerNumeroFilas(), obtenerNumeroColumnas());
+        copia.ranuras.copiarDe(ranuras);
+        copia.numeroRanuras = numeroRanuras;
+        copia.indices = indices.clone();
+        copia.ranurasLibres = ranurasLibres.clone();
+        copia.numeroRanurasLibres = numeroRanurasLibres;
+        return copia;
+    }
+}
@@ -9,6 +9,7 @@ package juego.modelo;
 public class Celda {
     private final int fila;
     private final int columna;
+    private Color color;
     private Piedra piedra;
 
     /**
@@ -23,11 +24,16 @@ public class Celda {
     }
 
     /**
-     * Devuelve la piedra que tiene.
+     * Devuelve la piedra que tiene. Si la celda se ocupó solo con un color,
+     * la piedra se crea en la primera consulta y se conserva en la celda.
      *
      * @return Piedra de la celda.
      */
     public Piedra obtenerPiedra() {
+        if (this.piedra == null && this.color != null) {
+            this.piedra = new Piedra(this.color);
+            this.piedra.colocarEn(this);
+        }
         return this.piedra;
     }
 
@@ -37,7 +43,7 @@ public class Celda {
      * @return Color de la piedra o <code>null</code> si no tiene piedra.
      */
     public Color obtenerColorDePiedra() {
-        return estaVacia() ? null : piedra.obtenerColor();
+        return this.color;
     }
 
     /**
@@ -47,6 +53,18 @@ public class Celda {
      */
     public void establecerPiedra(Piedra piedra) {
         this.piedra = piedra;
+        this.color = piedra == null ? null : piedra.obtenerColor();
+    }
+
+    /**
+     * Ocupa la celda con una piedra de un color sin crear el objeto piedra,
+     * que solo se genera si se consulta con {@link #obtenerPiedra()}.
+     *
+     * @param color Color de la piedra, o <code>null</code> para vaciar la celda.
+     */
+    void establecerColor(Color color) {
+        this.color = color;
+        this.piedra = null;
     }
 
     /**
@@ -55,7 +73,7 @@ public class Celda {
      * @return Verdadero en caso de que esté vacía.
      */
     public boolean estaVacia() {
-        return this.piedra == null;
+        return this.color == null;
     }
 
     /**
@@ -91,6 +109,7 @@ public class Celda {
      * Elimina la piedra asignada a la celda.
      */
     public void eliminarPiedra() {
+        this.color = null;
         this.piedra = null;
     }
 
@@ -0,0 +1,108 @@
+package juego.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de índices del tablero que permite añadir, quitar y consultar
+ * un elemento en tiempo constante y recorrer los elementos por posición.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+class ConjuntoIndices {
+    private int[] elementos;
+    private int[] posiciones;
+    private int tamaño = 0;
+
+    /**
+     * Constructor, crea un conjunto vacío.
+     *
+     * @param capacidad Número de índices posibles, de 0 a capacidad - 1.
+     */
+    ConjuntoIndices(int capacidad) {
+        elementos = new int[capacidad];
+        posiciones = new int[capacidad];
+        Arrays.fill(posiciones, -1);
+    }
+
+    /**
+     * Amplía el número de índices posibles conservando los elementos.
+     *
+     * @param capacidad Nuevo número de índices posibles, mayor que el actual.
+     */
+    void ampliar(int capacidad) {
+        assert capacidad > posiciones.length;
+        int anterior = posiciones.length;
+        elementos = Arrays.copyOf(elementos, capacidad);
+        posiciones = Arrays.copyOf(posiciones, capacidad);
+        Arrays.fill(posiciones, anterior, capacidad, -1);
+    }
+
+    /**
+     * Comprueba si un índice pertenece al conjunto.
+     *
+     * @param indice Índice a comprobar.
+     * @return <code>true</code> si pertenece, <code>false</code> en caso contrario.
+     */
+    boolean contiene(int indice) {
+        return posiciones[indice] >= 0;
+    }
+
+    /**
+     * Añade un índice al conjunto si no estaba.
+     *
+     * @param indice Índice a añadir.
+     */
+    void añadir(int indice) {
+        if (!contiene(indice)) {
+            posiciones[indice] = tamaño;
+            elementos[tamaño++] = indice;
+        }
+    }
+
+    /**
+     * Quita un índice del conjunto si estaba, moviendo el último elemento a su hueco.
+     *
+     * @param indice Índice a quitar.
+     */
+    void quitar(int indice) {
+        int posicion = posiciones[indice];
+        if (posicion >= 0) {
+            int ultimo = elementos[--tamaño];
+            elementos[posicion] = ultimo;
+            posiciones[ultimo] = posicion;
+            posiciones[indice] = -1;
+        }
+    }
+
+    /**
+     * Obtiene el número de elementos.
+     *
+     * @return Tamaño del conjunto.
+     */
+    int obtenerTamaño() {
+        return tamaño;
+    }
+
+    /**
+     * Obtiene un elemento por su posición.
+     *
+     * @param i Posición, menor que {@link #obtenerTamaño()}.
+     * @return Índice guardado en esa posición.
+     */
+    int obtener(int i) {
+        assert i >= 0 && i < tamaño;
+        return elementos[i];
+    }
+
+    /**
+     * Sustituye el contenido del conjunto por el de otro, con su misma capacidad.
+     *
+     * @param otro Conjunto a copiar.
+     */
+    void copiarDe(ConjuntoIndices otro) {
+        elementos = otro.elementos.clone();
+        posiciones = otro.posiciones.clone();
+        tamaño = otro.tamaño;
+    }
+}
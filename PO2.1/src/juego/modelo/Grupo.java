@@ -10,7 +10,6 @@ import java.util.List;
  * @version 2.1
  */
 public class Grupo {
-    private static int contador = 0;
     private int id;
     private Tablero tablero;
     private final List<Celda> celdas = new ArrayList<>();
@@ -22,13 +21,14 @@ public class Grupo {
      */
     public Grupo(Celda celda, Tablero tablero) {
         assert !celda.estaVacia() : "La celda [" + celda.toString() + "] está vacía";
-        id = contador++;
+        id = tablero.generarIdGrupo();
         this.tablero = tablero;
         celdas.add(celda);
     }
 
     /**
-     * Obtiene el número identificativo del grupo.
+     * Obtiene el número identificativo del grupo, único entre los grupos creados
+     * en su tablero.
      *
      * @return id del grupo.
      */
@@ -53,12 +53,7 @@ public class Grupo {
      * <code>false</code> en caso contrario.
      */
     public boolean estaVivo() {
-        for (Celda celda : celdas) {
-            if (tablero.obtenerGradosDeLibertad(celda) > 0) {
-                return true;
-            }
-        }
-        return false;
+        return tablero.estaVivo(celdas.get(0));
     }
 
     /**
@@ -92,6 +87,7 @@ public class Grupo {
      * @param grupo Grupo de celdas a ser añadidas.
      */
     public void añadirCeldas(Grupo grupo) {
+        tablero.descartarGrupo(this);
         for (int i = 0; i < grupo.obtenerTamaño(); i++) {
             Celda celda = grupo.celdas.get(i);
             if (!contiene(celda))
@@ -100,41 +96,56 @@ public class Grupo {
     }
 
     /**
-     * Elimina todas las piedras del grupo.
+     * Obtiene la celda con la que se creó el grupo.
+     *
+     * @return Primera celda del grupo.
      */
-    public void eliminarPiedras() {
-        for (Celda celda : celdas) {
-            celda.eliminarPiedra();
-        }
+    Celda obtenerPrimeraCelda() {
+        return celdas.get(0);
     }
 
     /**
-     * Crea una copia del grupo en un tablero.
+     * Añade una celda que se sabe que no pertenece al grupo, sin comprobarlo.
      *
-     * @param otroTablero Tablero donde crear copia.
-     * @return Grupo equivalente en otroTablero.
+     * @param celda Celda a ser añadida.
      */
-    public Grupo generarCopiaEnOtroTablero(Tablero otroTablero) {
-        Grupo nuevo = moverCelda(0, otroTablero);
-        for (int i = 1; i < obtenerTamaño(); i++) {
-            nuevo.añadirCeldas(moverCelda(i, otroTablero));
-        }
-        return nuevo;
+    void añadirCelda(Celda celda) {
+        celdas.add(celda);
+    }
+
+    /**
+     * Obtiene las celdas del grupo.
+     *
+     * @return Celdas del grupo, empezando por la primera.
+     */
+    List<Celda> obtenerCeldas() {
+        return celdas;
+    }
+
+    /**
+     * Elimina todas las piedras del grupo. El grupo tiene que seguir siendo un grupo
+     * actual de su tablero, ya que un grupo anterior a una unión no contiene todas
+     * las piedras que se quitarían.
+     *
+     * @throws IllegalStateException en caso de que el grupo ya no sea un grupo del tablero.
+     */
+    public void eliminarPiedras() {
+        tablero.retirarGrupo(this);
     }
 
     /**
-     * Mueve una celda del tablero a otro tablero, generando una nueva piedra si corresponde.
+     * Crea una copia del grupo en un tablero.
      *
-     * @param indice Índice de la celda en celdas.
-     * @param otroTablero El tablero al cual se va a copiar la celda
-     * @return Grupo que contiene la celda.
+     * @param otroTablero Tablero donde crear copia.
+     * @return Grupo equivalente en otroTablero.
      */
-    private Grupo moverCelda(int indice, Tablero otroTablero) {
-        Celda celda = celdas.get(indice);
-        if (celda.obtenerColorDePiedra() != null) {
-            otroTablero.colocar(new Piedra(celda.obtenerColorDePiedra()), otroTablero.obtenerCeldaConMismasCoordenadas(celda));
+    public Grupo generarCopiaEnOtroTablero(Tablero otroTablero) {
+        for (Celda celda : celdas) {
+            if (celda.obtenerColorDePiedra() != null) {
+                otroTablero.colocar(celda.obtenerColorDePiedra(), otroTablero.obtenerCeldaConMismasCoordenadas(celda));
+            }
         }
-        return new Grupo(otroTablero.obtenerCeldaConMismasCoordenadas(celda), otroTablero);
+        return otroTablero.obtenerGrupo(celdas.get(0));
     }
 
     /**
@@ -0,0 +1,466 @@
+package juego.modelo;
+
+import juego.util.CoordenadasIncorrectasException;
+import juego.util.Sentido;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Estado inmutable de un tablero en un momento de la partida. Cada fila guarda
+ * solo sus piedras, como entradas ordenadas por columna con el código de la piedra
+ * en los bits bajos, y se comparte con el tablero y con las demás instantáneas
+ * mientras no cambie. Así una instantánea ocupa memoria por las piedras y no por
+ * el área, y guardar muchas posiciones solo copia las filas modificadas entre ellas.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+public final class Instantanea {
+    private static final Color[] COLORES = Color.values();
+    private static final Sentido[] SENTIDOS = Sentido.values();
+    private static final int BITS_CODIGO = 2;
+    private static final int MASCARA_CODIGO = (1 << BITS_CODIGO) - 1;
+
+    /**
+     * Fila sin piedras, compartida por todas las filas vacías.
+     */
+    static final int[] FILA_VACIA = new int[0];
+
+    private final int columnas;
+    private final int[][] filas;
+    private final int[] longitudes;
+    private final long hash;
+    private final int numeroCeldasVacias;
+    private final int piedrasCapturadasNegras;
+    private final int piedrasCapturadasBlancas;
+
+    /**
+     * Constructor, las filas no se copian y no deben modificarse después.
+     *
+     * @param columnas                 número de columnas.
+     * @param filas                    Entradas de cada fila, ordenadas por columna.
+     * @param longitudes               Número de entradas usadas de cada fila.
+     * @param hash                     Hash Zobrist de la posición.
+     * @param numeroCeldasVacias       Número de posiciones sin piedra.
+     * @param piedrasCapturadasNegras  Piedras negras capturadas.
+     * @param piedrasCapturadasBlancas Piedras blancas capturadas.
+     */
+    Instantanea(int columnas, int[][] filas, int[] longitudes, long hash, int numeroCeldasVacias,
+                int piedrasCapturadasNegras, int piedrasCapturadasBlancas) {
+        this.columnas = columnas;
+        this.filas = filas;
+        this.longitudes = longitudes;
+        this.hash = hash;
+        this.numeroCeldasVacias = numeroCeldasVacias;
+        this.piedrasCapturadasNegras = piedrasCapturadasNegras;
+        this.piedrasCapturadasBlancas = piedrasCapturadasBlancas;
+    }
+
+    /**
+     * Devuelve el número de filas.
+     *
+     * @return número de filas.
+     */
+    public int obtenerNumeroFilas() {
+        return filas.length;
+    }
+
+    /**
+     * Devuelve el número de columnas.
+     *
+     * @return número de columnas.
+     */
+    public int obtenerNumeroColumnas() {
+        return columnas;
+    }
+
+    /**
+     * Obtiene el color de la piedra de una posición.
+     *
+     * @param fila    Fila de la posición.
+     * @param columna Columna de la posición.
+     * @return Color de la piedra o <code>null</code> si la posición está vacía.
+     * @throws CoordenadasIncorrectasException en caso de que la posición no esté dentro del tablero.
+     */
+    public Color obtenerColor(int fila, int columna) throws CoordenadasIncorrectasException {
+        byte codigo = obtenerCodigo(fila, columna);
+        return codigo == 0 ? null : COLORES[codigo - 1];
+    }
+
+    /**
+     * Comprueba si una posición está vacía.
+     *
+     * @param fila    Fila de la posición.
+     * @param columna Columna de la posición.
+     * @return <code>true</code> si no tiene piedra, <code>false</code> en caso contrario.
+     * @throws CoordenadasIncorrectasException en caso de que la posición no esté dentro del tablero.
+     */
+    public boolean estaVacia(int fila, int columna) throws CoordenadasIncorrectasException {
+        return obtenerCodigo(fila, columna) == 0;
+    }
+
+    /**
+     * Obtiene el hash Zobrist de la posición.
+     *
+     * @return Hash de 64 bits, igual al del tablero en el momento de la instantánea.
+     */
+    public long obtenerHash() {
+        return hash;
+    }
+
+    /**
+     * Obtiene el número de posiciones sin piedra.
+     *
+     * @return Número de celdas vacías, igual al del tablero en el momento de la instantánea.
+     */
+    public int obtenerNumeroCeldasVacias() {
+        return numeroCeldasVacias;
+    }
+
+    /**
+     * Obtiene la cantidad de piedras capturadas de un determinado color.
+     *
+     * @param color Color a comprobar.
+     * @return Numero de piedras de ese color que habían sido capturadas.
+     */
+    public int obtenerNumeroPiedrasCapturadas(Color color) {
+        return (color == Color.NEGRO) ? piedrasCapturadasNegras : piedrasCapturadasBlancas;
+    }
+
+    /**
+     * Calcula si esta instantánea tiene las mismas piedras que otra. Compara primero
+     * los hash y solo recorre las filas que no comparten.
+     *
+     * @param otra Instantánea a comparar.
+     * @return <code>true</code> si son iguales, <code>false</code> en caso contrario.
+     */
+    public boolean esIgual(Instantanea otra) {
+        return hash == otra.hash && columnas == otra.columnas && tieneLasMismasFilas(otra.filas, otra.longitudes);
+    }
+
+    /**
+     * Crea un tablero nuevo con las piedras y las capturas de la instantánea, denso o
+     * disperso según su tamaño como en {@link Tablero#generarTablero(int, int)}.
+     *
+     * @return Tablero independiente de la instantánea.
+     */
+    public Tablero generarTablero() {
+        Tablero tablero = Tablero.generarTablero(obtenerNumeroFilas(), obtenerNumeroColumnas());
+        tablero.cargar(this);
+        return tablero;
+    }
+
+    /**
+     * Calcula la posición que resulta de colocar una piedra, con las mismas capturas
+     * que {@link Tablero#aplicar(Color, Celda)}: primero los grupos rivales adyacentes
+     * sin libertades y, si no hay ninguno y quedan celdas vacías, el grupo propio.
+     * No modifica esta instantánea; la nueva comparte con ella las filas que no cambian,
+     * así que puede llamarse desde varios hilos a la vez. Las celdas vacías se cuentan a
+     * partir de las de esta instantánea, sin recorrer el tablero.
+     *
+     * @param color   Color de la piedra a colocar.
+     * @param fila    Fila de la posición, que debe estar vacía.
+     * @param columna Columna de la posición, que debe estar vacía.
+     * @return Instantánea con la piedra colocada y las capturas resueltas.
+     * @throws CoordenadasIncorrectasException en caso de que la posición no esté dentro del tablero.
+     */
+    public Instantanea generarInstantaneaTrasJugada(Color color, int fila, int columna)
+            throws CoordenadasIncorrectasException {
+        boolean vacia = estaVacia(fila, columna);
+        assert vacia : "La posición " + fila + ", " + columna + " no está vacía";
+        int[][] nuevas = filas.clone();
+        int[] nuevasLongitudes = longitudes.clone();
+        establecerCodigo(nuevas, nuevasLongitudes, fila, columna, Tablero.obtenerCodigo(color));
+        long nuevoHash = hash ^ Tablero.obtenerClaveZobrist(fila, columna, color);
+        int[] capturadas = {piedrasCapturadasNegras, piedrasCapturadasBlancas};
+        Color rival = color == Color.BLANCO ? Color.NEGRO : Color.BLANCO;
+        byte codigoRival = Tablero.obtenerCodigo(rival);
+        int eliminadas = 0;
+        int vacias = numeroCeldasVacias - 1;
+        for (Sentido sentido : SENTIDOS) {
+            int vecinaFila = fila + sentido.obtenerDesplazamientoFila();
+            int vecinaColumna = columna + sentido.obtenerDesplazamientoColumna();
+            if (estaDentro(vecinaFila, vecinaColumna)
+                    && leerCodigo(nuevas, nuevasLongitudes, vecinaFila, vecinaColumna) == codigoRival) {
+                int[] grupo = buscarGrupoSinLibertades(nuevas, nuevasLongitudes, vecinaFila * columnas + vecinaColumna);
+                if (grupo != null) {
+                    nuevoHash = eliminar(nuevas, nuevasLongitudes, grupo, rival, nuevoHash);
+                    eliminadas += grupo.length;
+                }
+            }
+        }
+        capturadas[rival.ordinal()] += eliminadas;
+        vacias += eliminadas;
+        if (eliminadas == 0 && vacias > 0) {
+            int[] grupo = buscarGrupoSinLibertades(nuevas, nuevasLongitudes, fila * columnas + columna);
+            if (grupo != null) {
+                nuevoHash = eliminar(nuevas, nuevasLongitudes, grupo, color, nuevoHash);
+                capturadas[color.ordinal()] += grupo.length;
+                vacias += grupo.length;
+            }
+        }
+        return new Instantanea(columnas, nuevas, nuevasLongitudes, nuevoHash, vacias,
+                capturadas[Color.NEGRO.ordinal()], capturadas[Color.BLANCO.ordinal()]);
+    }
+
+    /**
+     * Recorre el grupo de una piedra y para en cuanto encuentra una libertad.
+     * Un grupo rival ya capturado tiene sus celdas vacías, así que no se vuelve a recorrer.
+     *
+     * @param filas      Entradas de cada fila.
+     * @param longitudes Número de entradas de cada fila.
+     * @param inicio     Índice <code>fila * columnas + columna</code> de la piedra.
+     * @return Índices de las piedras del grupo, o <code>null</code> si tiene alguna libertad.
+     */
+    private int[] buscarGrupoSinLibertades(int[][] filas, int[] longitudes, int inicio) {
+        BitSet visitadas = new BitSet();
+        byte codigo = leerCodigo(filas, longitudes, inicio / columnas, inicio % columnas);
+        int[] grupo = new int[8];
+        int tamaño = 0;
+        grupo[tamaño++] = inicio;
+        visitadas.set(inicio);
+        for (int i = 0; i < tamaño; i++) {
+            for (Sentido sentido : SENTIDOS) {
+                int vecinaFila = grupo[i] / columnas + sentido.obtenerDesplazamientoFila();
+                int vecinaColumna = grupo[i] % columnas + sentido.obtenerDesplazamientoColumna();
+                if (!estaDentro(vecinaFila, vecinaColumna)) {
+                    continue;
+                }
+                byte vecina = leerCodigo(filas, longitudes, vecinaFila, vecinaColumna);
+                int indice = vecinaFila * columnas + vecinaColumna;
+                if (vecina == Tablero.VACIA) {
+                    return null;
+                }
+                if (vecina == codigo && !visitadas.get(indice)) {
+                    if (tamaño == grupo.length) {
+                        grupo = Arrays.copyOf(grupo, tamaño * 2);
+                    }
+                    grupo[tamaño++] = indice;
+                    visitadas.set(indice);
+                }
+            }
+        }
+        return Arrays.copyOf(grupo, tamaño);
+    }
+
+    /**
+     * Quita del tablero las piedras de un grupo.
+     *
+     * @param filas      Entradas de cada fila, cuyas filas compartidas se copian antes de cambiarlas.
+     * @param longitudes Número de entradas de cada fila.
+     * @param grupo      Índices de las piedras del grupo.
+     * @param color      Color de las piedras.
+     * @param hash       Hash antes de quitarlas.
+     * @return Hash después de quitarlas.
+     */
+    private long eliminar(int[][] filas, int[] longitudes, int[] grupo, Color color, long hash) {
+        for (int indice : grupo) {
+            establecerCodigo(filas, longitudes, indice / columnas, indice % columnas, Tablero.VACIA);
+            hash ^= Tablero.obtenerClaveZobrist(indice / columnas, indice % columnas, color);
+        }
+        return hash;
+    }
+
+    /**
+     * Cambia el código de una posición, copiando antes su fila si todavía es la de esta
+     * instantánea. La copia deja sitio para una entrada más, que basta para la única
+     * piedra que se coloca en cada jugada; las capturas solo quitan entradas.
+     *
+     * @param nuevas           Entradas de cada fila de la nueva posición.
+     * @param nuevasLongitudes Número de entradas de cada fila de la nueva posición.
+     * @param fila             Fila de la posición.
+     * @param columna          Columna de la posición.
+     * @param codigo           Nuevo código.
+     */
+    private void establecerCodigo(int[][] nuevas, int[] nuevasLongitudes, int fila, int columna, byte codigo) {
+        if (nuevas[fila] == filas[fila]) {
+            nuevas[fila] = Arrays.copyOf(filas[fila], Math.min(columnas, longitudes[fila] + 1));
+        }
+        nuevasLongitudes[fila] = cambiarEntrada(nuevas[fila], nuevasLongitudes[fila], columna, codigo);
+    }
+
+    /**
+     * Obtiene el código de una posición buscando su columna entre las entradas de la fila.
+     *
+     * @param filas      Entradas de cada fila.
+     * @param longitudes Número de entradas de cada fila.
+     * @param fila       Fila de la posición.
+     * @param columna    Columna de la posición.
+     * @return Código de la posición, {@link Tablero#VACIA} si no tiene entrada.
+     */
+    private static byte leerCodigo(int[][] filas, int[] longitudes, int fila, int columna) {
+        int posicion = buscarColumna(filas[fila], longitudes[fila], columna);
+        return posicion < 0 ? Tablero.VACIA : obtenerCodigoDeEntrada(filas[fila][posicion]);
+    }
+
+    /**
+     * Busca la entrada de una columna en una fila ordenada.
+     *
+     * @param fila     Entradas de la fila.
+     * @param longitud Número de entradas usadas.
+     * @param columna  Columna buscada.
+     * @return Posición de la entrada, o <code>-(posición de inserción) - 1</code> si la columna no tiene.
+     */
+    static int buscarColumna(int[] fila, int longitud, int columna) {
+        int desde = 0;
+        int hasta = longitud - 1;
+        while (desde <= hasta) {
+            int medio = (desde + hasta) >>> 1;
+            int actual = obtenerColumnaDeEntrada(fila[medio]);
+            if (actual < columna) {
+                desde = medio + 1;
+            } else if (actual > columna) {
+                hasta = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -(desde + 1);
+    }
+
+    /**
+     * Cambia el código de una columna en una fila que no comparte nadie, poniendo,
+     * sustituyendo o quitando su entrada y manteniendo el orden. Si se añade una entrada,
+     * la fila debe tener sitio para ella.
+     *
+     * @param fila     Entradas de la fila.
+     * @param longitud Número de entradas usadas.
+     * @param columna  Columna a cambiar.
+     * @param codigo   Nuevo código, {@link Tablero#VACIA} para quitar la entrada.
+     * @return Nuevo número de entradas usadas.
+     */
+    static int cambiarEntrada(int[] fila, int longitud, int columna, byte codigo) {
+        int posicion = buscarColumna(fila, longitud, columna);
+        if (posicion >= 0) {
+            if (codigo != Tablero.VACIA) {
+                fila[posicion] = codificar(columna, codigo);
+                return longitud;
+            }
+            System.arraycopy(fila, posicion + 1, fila, posicion, longitud - posicion - 1);
+            return longitud - 1;
+        }
+        if (codigo == Tablero.VACIA) {
+            return longitud;
+        }
+        posicion = -posicion - 1;
+        System.arraycopy(fila, posicion, fila, posicion + 1, longitud - posicion);
+        fila[posicion] = codificar(columna, codigo);
+        return longitud + 1;
+    }
+
+    /**
+     * Forma la entrada de una piedra.
+     *
+     * @param columna Columna de la piedra.
+     * @param codigo  Código de la piedra.
+     * @return Entrada con la columna en los bits altos y el código en los bajos.
+     */
+    static int codificar(int columna, byte codigo) {
+        return columna << BITS_CODIGO | codigo;
+    }
+
+    /**
+     * Obtiene la columna de una entrada.
+     *
+     * @param entrada Entrada de una fila.
+     * @return Columna de la piedra.
+     */
+    static int obtenerColumnaDeEntrada(int entrada) {
+        return entrada >>> BITS_CODIGO;
+    }
+
+    /**
+     * Obtiene el código de una entrada.
+     *
+     * @param entrada Entrada de una fila.
+     * @return Código de la piedra.
+     */
+    static byte obtenerCodigoDeEntrada(int entrada) {
+        return (byte) (entrada & MASCARA_CODIGO);
+    }
+
+    /**
+     * Comprueba si una posición está dentro del tablero.
+     *
+     * @param fila    Fila de la posición.
+     * @param columna Columna de la posición.
+     * @return <code>true</code> si está dentro.
+     */
+    private boolean estaDentro(int fila, int columna) {
+        return fila >= 0 && fila < filas.length && columna >= 0 && columna < columnas;
+    }
+
+    /**
+     * Obtiene las entradas de una fila, compartidas y de solo lectura.
+     *
+     * @param fila Fila del tablero.
+     * @return Entradas de la fila, de las que solo se usan las primeras
+     * {@link #obtenerLongitudFila(int)}.
+     */
+    int[] obtenerFila(int fila) {
+        return filas[fila];
+    }
+
+    /**
+     * Obtiene el número de piedras de una fila.
+     *
+     * @param fila Fila del tablero.
+     * @return Número de entradas usadas de la fila.
+     */
+    int obtenerLongitudFila(int fila) {
+        return longitudes[fila];
+    }
+
+    /**
+     * Compara las filas de la instantánea con otras del mismo número de filas,
+     * saltándose las que son el mismo bloque con las mismas entradas.
+     *
+     * @param otras           Entradas de cada fila a comparar.
+     * @param otrasLongitudes Número de entradas de cada fila a comparar.
+     * @return <code>true</code> si todas tienen las mismas piedras.
+     */
+    boolean tieneLasMismasFilas(int[][] otras, int[] otrasLongitudes) {
+        if (otras.length != filas.length) {
+            return false;
+        }
+        for (int i = 0; i < filas.length; i++) {
+            if (longitudes[i] != otrasLongitudes[i]) {
+                return false;
+            }
+            if (filas[i] != otras[i]) {
+                for (int j = 0; j < longitudes[i]; j++) {
+                    if (filas[i][j] != otras[i][j]) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene el código de una posición, comprobando que esté dentro del tablero.
+     *
+     * @param fila    Fila de la posición.
+     * @param columna Columna de la posición.
+     * @return Código de la posición.
+     * @throws CoordenadasIncorrectasException en caso de que la posición no esté dentro del tablero.
+     */
+    private byte obtenerCodigo(int fila, int columna) throws CoordenadasIncorrectasException {
+        if (!estaDentro(fila, columna)) {
+            throw new CoordenadasIncorrectasException("No existe una celda con coordenadas " + fila + ", " + columna);
+        }
+        return leerCodigo(filas, longitudes, fila, columna);
+    }
+
+    /**
+     * Información del objeto en String.
+     *
+     * @return String del objeto.
+     */
+    public String toString() {
+        return "Instantanea{ tamaño=(" + obtenerNumeroFilas() + "x" + obtenerNumeroColumnas() + "), hash=" +
+                Long.toHexString(hash) + " }";
+    }
+}
@@ -0,0 +1,62 @@
+package juego.modelo;
+
+import juego.util.TablaDeDispersion;
+
+/**
+ * Tabla de índices del tablero a enteros, apoyada en una {@link TablaDeDispersion}
+ * para no crear un objeto por elemento.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+class MapaDeIndices {
+    private final TablaDeDispersion tabla = new TablaDeDispersion();
+
+    /**
+     * Obtiene el valor asociado a un índice.
+     *
+     * @param clave Índice, mayor o igual que 0.
+     * @return Valor asociado, o -1 si el índice no está en la tabla.
+     */
+    int obtener(int clave) {
+        return tabla.obtener(clave);
+    }
+
+    /**
+     * Asocia un valor a un índice, sustituyendo el anterior si lo había.
+     *
+     * @param clave Índice, mayor o igual que 0.
+     * @param valor Valor a asociar.
+     */
+    void poner(int clave, int valor) {
+        assert clave >= 0;
+        tabla.poner(clave, valor);
+    }
+
+    /**
+     * Quita un índice de la tabla si estaba.
+     *
+     * @param clave Índice a quitar.
+     */
+    void quitar(int clave) {
+        tabla.quitar(clave);
+    }
+
+    /**
+     * Obtiene el número de índices de la tabla.
+     *
+     * @return Tamaño de la tabla.
+     */
+    int obtenerTamaño() {
+        return tabla.obtenerTamaño();
+    }
+
+    /**
+     * Sustituye el contenido de la tabla por el de otra.
+     *
+     * @param otra Tabla a copiar.
+     */
+    void copiarDe(MapaDeIndices otra) {
+        tabla.copiarDe(otra.tabla);
+    }
+}
@@ -0,0 +1,328 @@
+package juego.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Registro de una jugada aplicada sobre un tablero con la información necesaria
+ * para deshacerla exactamente: piedras capturadas, grupos unidos, contadores de
+ * capturas y hash anteriores. El árbitro guarda un registro por jugada, así que los
+ * vectores solo se crean cuando hacen falta: el estado de las raíces vecinas se
+ * empaqueta en un único vector al guardar la primera, y los de capturas no se crean
+ * hasta la primera captura, que en la mayoría de jugadas no llega.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+public class RegistroJugada {
+    private static final int MAXIMO_ADYACENTES = 4;
+    private static final int CAMPOS_POR_RAIZ = 4;
+    private static final long[] SIN_RAICES = new long[0];
+    private static final int[] SIN_CAPTURADAS = new int[0];
+    private static final Color[] SIN_COLORES = new Color[0];
+
+    private final Celda celda;
+    private final Color color;
+    private final int indice;
+    private final long hashAnterior;
+    private final int capturadasNegrasAnteriores;
+    private final int capturadasBlancasAnteriores;
+    private long hashPosterior;
+
+    private int numeroRaices = 0;
+    private long[] raices = SIN_RAICES;
+
+    private int numeroCapturadas = 0;
+    private int[] capturadas = SIN_CAPTURADAS;
+    private int numeroGruposCapturados = 0;
+    private int[] inicioGruposCapturados = SIN_CAPTURADAS;
+    private Color[] coloresGruposCapturados = SIN_COLORES;
+
+    /**
+     * Constructor del registro, guarda el estado global previo a la jugada.
+     *
+     * @param celda                       Celda del tablero donde se coloca.
+     * @param color                       Color de la piedra colocada.
+     * @param indice                      Índice interno de la celda.
+     * @param hashAnterior                Hash del tablero antes de la jugada.
+     * @param capturadasNegrasAnteriores  Piedras negras capturadas antes de la jugada.
+     * @param capturadasBlancasAnteriores Piedras blancas capturadas antes de la jugada.
+     */
+    RegistroJugada(Celda celda, Color color, int indice, long hashAnterior,
+                   int capturadasNegrasAnteriores, int capturadasBlancasAnteriores) {
+        this.celda = celda;
+        this.color = color;
+        this.indice = indice;
+        this.hashAnterior = hashAnterior;
+        this.capturadasNegrasAnteriores = capturadasNegrasAnteriores;
+        this.capturadasBlancasAnteriores = capturadasBlancasAnteriores;
+    }
+
+    /**
+     * Obtiene la celda en la que se colocó la piedra.
+     *
+     * @return Celda de la jugada.
+     */
+    public Celda obtenerCelda() {
+        return celda;
+    }
+
+    /**
+     * Obtiene el color de la piedra colocada.
+     *
+     * @return Color de la jugada.
+     */
+    public Color obtenerColor() {
+        return color;
+    }
+
+    /**
+     * Obtiene el número de piedras que se quitaron del tablero en la jugada.
+     *
+     * @return Número de piedras capturadas.
+     */
+    public int obtenerNumeroPiedrasCapturadas() {
+        return numeroCapturadas;
+    }
+
+    /**
+     * Obtiene el índice interno de la celda de la jugada.
+     *
+     * @return Índice.
+     */
+    int obtenerIndice() {
+        return indice;
+    }
+
+    /**
+     * Obtiene el hash del tablero antes de la jugada.
+     *
+     * @return Hash anterior.
+     */
+    long obtenerHashAnterior() {
+        return hashAnterior;
+    }
+
+    /**
+     * Obtiene el hash del tablero después de la jugada.
+     *
+     * @return Hash posterior.
+     */
+    public long obtenerHashPosterior() {
+        return hashPosterior;
+    }
+
+    /**
+     * Establece el hash del tablero después de la jugada.
+     *
+     * @param hashPosterior Hash posterior.
+     */
+    void establecerHashPosterior(long hashPosterior) {
+        this.hashPosterior = hashPosterior;
+    }
+
+    /**
+     * Obtiene el número de piedras capturadas de un color antes de la jugada.
+     *
+     * @param color Color de las piedras.
+     * @return Número de piedras capturadas.
+     */
+    int obtenerCapturadasAnteriores(Color color) {
+        return color == Color.NEGRO ? capturadasNegrasAnteriores : capturadasBlancasAnteriores;
+    }
+
+    /**
+     * Guarda el estado de la raíz de un grupo adyacente antes de modificarlo,
+     * ignorando las raíces ya guardadas. Cada raíz ocupa {@link #CAMPOS_POR_RAIZ}
+     * posiciones del vector: índice y tamaño, libertades y siguiente, y las dos sumas.
+     *
+     * @param raiz      Índice de la raíz.
+     * @param tamaño    Tamaño del grupo.
+     * @param libertad  Libertades del grupo.
+     * @param suma      Suma de los índices de las libertades del grupo.
+     * @param cuadrados Suma de los cuadrados de los índices de las libertades del grupo.
+     * @param siguiente Siguiente piedra de la lista del grupo.
+     */
+    void guardarRaiz(int raiz, int tamaño, int libertad, long suma, long cuadrados, int siguiente) {
+        for (int i = 0; i < numeroRaices; i++) {
+            if (obtenerRaiz(i) == raiz) {
+                return;
+            }
+        }
+        if (raices == SIN_RAICES) {
+            raices = new long[MAXIMO_ADYACENTES * CAMPOS_POR_RAIZ];
+        }
+        int base = numeroRaices * CAMPOS_POR_RAIZ;
+        raices[base] = empaquetar(raiz, tamaño);
+        raices[base + 1] = empaquetar(libertad, siguiente);
+        raices[base + 2] = suma;
+        raices[base + 3] = cuadrados;
+        numeroRaices++;
+    }
+
+    /**
+     * Junta dos enteros en un <code>long</code>.
+     *
+     * @param alto Entero de los 32 bits altos.
+     * @param bajo Entero de los 32 bits bajos.
+     * @return Valor empaquetado.
+     */
+    private static long empaquetar(int alto, int bajo) {
+        return (long) alto << 32 | (bajo & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Obtiene el número de raíces guardadas.
+     *
+     * @return Número de raíces.
+     */
+    int obtenerNumeroRaices() {
+        return numeroRaices;
+    }
+
+    /**
+     * Obtiene el índice de una raíz guardada.
+     *
+     * @param i Posición de la raíz en el registro.
+     * @return Índice de la raíz.
+     */
+    int obtenerRaiz(int i) {
+        return (int) (raices[i * CAMPOS_POR_RAIZ] >>> 32);
+    }
+
+    /**
+     * Obtiene el tamaño guardado de una raíz.
+     *
+     * @param i Posición de la raíz en el registro.
+     * @return Tamaño del grupo.
+     */
+    int obtenerTamaño(int i) {
+        return (int) raices[i * CAMPOS_POR_RAIZ];
+    }
+
+    /**
+     * Obtiene las libertades guardadas de una raíz.
+     *
+     * @param i Posición de la raíz en el registro.
+     * @return Libertades del grupo.
+     */
+    int obtenerLibertades(int i) {
+        return (int) (raices[i * CAMPOS_POR_RAIZ + 1] >>> 32);
+    }
+
+    /**
+     * Obtiene la suma de los índices de las libertades guardada de una raíz.
+     *
+     * @param i Posición de la raíz en el registro.
+     * @return Suma de los índices de las libertades.
+     */
+    long obtenerSumaLibertades(int i) {
+        return raices[i * CAMPOS_POR_RAIZ + 2];
+    }
+
+    /**
+     * Obtiene la suma de los cuadrados de los índices de las libertades guardada de una raíz.
+     *
+     * @param i Posición de la raíz en el registro.
+     * @return Suma de los cuadrados de los índices de las libertades.
+     */
+    long obtenerSumaCuadrados(int i) {
+        return raices[i * CAMPOS_POR_RAIZ + 3];
+    }
+
+    /**
+     * Obtiene el siguiente guardado de una raíz.
+     *
+     * @param i Posición de la raíz en el registro.
+     * @return Siguiente piedra de la lista del grupo.
+     */
+    int obtenerSiguiente(int i) {
+        return (int) raices[i * CAMPOS_POR_RAIZ + 1];
+    }
+
+    /**
+     * Marca el comienzo de un grupo capturado; las siguientes piedras
+     * capturadas pertenecen a él, empezando por su raíz.
+     *
+     * @param color Color de las piedras del grupo.
+     */
+    void iniciarGrupoCapturado(Color color) {
+        if (numeroGruposCapturados == inicioGruposCapturados.length) {
+            int capacidad = Math.max(MAXIMO_ADYACENTES, numeroGruposCapturados * 2);
+            inicioGruposCapturados = Arrays.copyOf(inicioGruposCapturados, capacidad);
+            coloresGruposCapturados = Arrays.copyOf(coloresGruposCapturados, capacidad);
+        }
+        coloresGruposCapturados[numeroGruposCapturados] = color;
+        inicioGruposCapturados[numeroGruposCapturados++] = numeroCapturadas;
+    }
+
+    /**
+     * Añade una piedra capturada al último grupo iniciado, en el orden de su lista.
+     *
+     * @param indice Índice de la celda capturada.
+     */
+    void añadirCapturada(int indice) {
+        if (numeroCapturadas == capturadas.length) {
+            capturadas = Arrays.copyOf(capturadas, Math.max(MAXIMO_ADYACENTES, numeroCapturadas * 2));
+        }
+        capturadas[numeroCapturadas++] = indice;
+    }
+
+    /**
+     * Obtiene el número de grupos capturados.
+     *
+     * @return Número de grupos.
+     */
+    int obtenerNumeroGruposCapturados() {
+        return numeroGruposCapturados;
+    }
+
+    /**
+     * Obtiene la posición de la primera piedra de un grupo capturado.
+     *
+     * @param grupo Número del grupo capturado.
+     * @return Posición de su primera piedra en el registro.
+     */
+    int obtenerInicioGrupoCapturado(int grupo) {
+        return inicioGruposCapturados[grupo];
+    }
+
+    /**
+     * Obtiene la posición siguiente a la última piedra de un grupo capturado.
+     *
+     * @param grupo Número del grupo capturado.
+     * @return Posición final, exclusiva, del grupo en el registro.
+     */
+    int obtenerFinGrupoCapturado(int grupo) {
+        return grupo + 1 < numeroGruposCapturados ? inicioGruposCapturados[grupo + 1] : numeroCapturadas;
+    }
+
+    /**
+     * Obtiene el índice de una piedra capturada.
+     *
+     * @param i Posición de la piedra en el registro.
+     * @return Índice de la celda.
+     */
+    int obtenerCapturada(int i) {
+        return capturadas[i];
+    }
+
+    /**
+     * Obtiene el color de las piedras de un grupo capturado.
+     *
+     * @param grupo Número del grupo capturado.
+     * @return Color del grupo.
+     */
+    Color obtenerColorGrupoCapturado(int grupo) {
+        return coloresGruposCapturados[grupo];
+    }
+
+    /**
+     * Información del objeto en String.
+     *
+     * @return String del objeto.
+     */
+    public String toString() {
+        return "RegistroJugada{ celda=" + celda + ", color=" + obtenerColor() +
+                ", capturadas=" + numeroCapturadas + " }";
+    }
+}
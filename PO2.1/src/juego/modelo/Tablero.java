@@ -4,36 +4,163 @@ import juego.util.CoordenadasIncorrectasException;
 import juego.util.Sentido;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
- * Tablero de juego.
+ * Tablero de juego. Las reglas se implementan una sola vez sobre los índices y las
+ * ranuras de un {@link AlmacenDeCeldas}: cada celda ocupada tiene una ranura en los
+ * vectores de grupos y libertades, y el almacén decide si las celdas vacías también
+ * la tienen. Este tablero usa un almacén con una ranura por celda, rodeado por un
+ * borde, de modo que basta mirar el código del vecino para saber si está fuera.
+ * <p>
+ * Un tablero no se debe usar desde varios hilos a la vez, pero dos tableros
+ * no comparten ningún estado modificable, ni siquiera los números de sus
+ * grupos, así que cada hilo puede jugar en los suyos sin sincronizarse.
  *
  * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
  * @version 2.1
  */
 public class Tablero {
-    private final List<List<Celda>> celdas = new ArrayList<>();
-    private final List<Grupo> grupos = new ArrayList<>();
+    /**
+     * Número de celdas a partir del cual {@link #generarTablero(int, int)} crea un
+     * tablero disperso, que solo guarda las celdas ocupadas.
+     */
+    public static final int CELDAS_MINIMAS_TABLERO_DISPERSO = 100 * 100;
+
+    static final byte VACIA = 0;
+    private static final byte BORDE = -1;
+    static final Color[] COLORES = Color.values();
+    private static final int CAPACIDAD_MINIMA = 64;
+    private static final int NUMERO_SENTIDOS = AlmacenDeCeldas.SENTIDOS.length;
+
+    private final AlmacenDeCeldas almacen;
+    private final int filas;
+    private final int columnas;
+    private byte[] codigos;
+    private Celda[] celdas;
+    private int[] padre;
+    private int[] tamaño;
+    private int[] siguiente;
+    private int[] libertades;
+    private long[] sumaLibertades;
+    private long[] sumaCuadrados;
+    private Grupo[] grupos;
+    private final ConjuntoIndices[] enAtari = new ConjuntoIndices[COLORES.length];
+    private final int[][] filasInstantanea;
+    private final int[] longitudesFila;
+    private final boolean[] filaCompartida;
+    private Instantanea ultimaInstantanea;
+    private final int[] numeroPiedras;
+    private int numeroCeldasVacias;
 
     private int piedrasCapturadasNegras = 0;
     private int piedrasCapturadasBlancas = 0;
+    private long hash = 0;
+    private long numeroModificaciones = 0;
+    private int siguienteIdGrupo = 0;
 
     /**
-     * Constructor, itera por cada Celda y la inicializa.
+     * Constructor, itera por cada Celda y la inicializa, marcando como borde
+     * las posiciones que rodean el tablero.
      *
      * @param filas    número de filas
      * @param columnas número columnas
      */
     public Tablero(int filas, int columnas) {
-        assert filas > 0 && columnas > 0;
-        for (int i = 0; i < filas; i++) {
-            List<Celda> fila = new ArrayList<>();
-            for (int j = 0; j < columnas; j++) {
-                fila.add(new Celda(i, j));
+        this(new AlmacenDenso(filas, columnas));
+    }
+
+    /**
+     * Constructor para un almacén cualquiera. Si el almacén reserva las celdas vacías,
+     * se crean todas sus celdas y el resto de ranuras se marcan como borde; si no, las
+     * ranuras se van ocupando al colocar piedras. Todas las filas de las instantáneas
+     * empiezan siendo la misma fila sin piedras, que solo se copia al colocar en ella.
+     *
+     * @param almacen Almacén vacío que numera las celdas del tablero.
+     */
+    Tablero(AlmacenDeCeldas almacen) {
+        this.almacen = almacen;
+        filas = almacen.obtenerNumeroFilas();
+        columnas = almacen.obtenerNumeroColumnas();
+        int capacidad = Math.max(almacen.obtenerNumeroRanuras(), CAPACIDAD_MINIMA);
+        codigos = new byte[capacidad];
+        celdas = new Celda[capacidad];
+        padre = new int[capacidad];
+        tamaño = new int[capacidad];
+        siguiente = new int[capacidad];
+        libertades = new int[capacidad];
+        sumaLibertades = new long[capacidad];
+        sumaCuadrados = new long[capacidad];
+        grupos = new Grupo[capacidad];
+        for (Color color : COLORES) {
+            enAtari[color.ordinal()] = new ConjuntoIndices(capacidad);
+        }
+        if (almacen.reservaCeldasVacias()) {
+            Arrays.fill(codigos, BORDE);
+            for (int i = 0; i < filas; i++) {
+                for (int j = 0; j < columnas; j++) {
+                    int r = almacen.obtenerRanura(almacen.obtenerIndice(i, j));
+                    celdas[r] = new Celda(i, j);
+                    codigos[r] = VACIA;
+                }
+            }
+        }
+        filasInstantanea = new int[filas][];
+        Arrays.fill(filasInstantanea, Instantanea.FILA_VACIA);
+        longitudesFila = new int[filas];
+        filaCompartida = new boolean[filas];
+        Arrays.fill(filaCompartida, true);
+        numeroPiedras = new int[COLORES.length];
+        numeroCeldasVacias = filas * columnas;
+    }
+
+    /**
+     * Constructor de copia, crea un tablero independiente con las mismas piedras,
+     * grupos y capturas que otro. Las filas de las instantáneas se comparten hasta
+     * que alguno de los dos tableros las modifica.
+     *
+     * @param original Tablero a copiar.
+     */
+    Tablero(Tablero original) {
+        almacen = original.almacen.generarCopia();
+        filas = original.filas;
+        columnas = original.columnas;
+        codigos = original.codigos.clone();
+        celdas = new Celda[original.celdas.length];
+        for (int r = 0; r < celdas.length; r++) {
+            Celda celda = original.celdas[r];
+            if (celda != null) {
+                celdas[r] = new Celda(celda.obtenerFila(), celda.obtenerColumna());
+                if (esPiedra(codigos[r])) {
+                    celdas[r].establecerColor(COLORES[codigos[r] - 1]);
+                }
             }
-            celdas.add(fila);
         }
+        padre = original.padre.clone();
+        tamaño = original.tamaño.clone();
+        siguiente = original.siguiente.clone();
+        libertades = original.libertades.clone();
+        sumaLibertades = original.sumaLibertades.clone();
+        sumaCuadrados = original.sumaCuadrados.clone();
+        grupos = new Grupo[original.grupos.length];
+        for (int i = 0; i < enAtari.length; i++) {
+            enAtari[i] = new ConjuntoIndices(0);
+            enAtari[i].copiarDe(original.enAtari[i]);
+        }
+        filasInstantanea = original.filasInstantanea.clone();
+        longitudesFila = original.longitudesFila.clone();
+        filaCompartida = new boolean[filas];
+        Arrays.fill(filaCompartida, true);
+        Arrays.fill(original.filaCompartida, true);
+        ultimaInstantanea = original.ultimaInstantanea;
+        numeroPiedras = original.numeroPiedras.clone();
+        numeroCeldasVacias = original.numeroCeldasVacias;
+        piedrasCapturadasNegras = original.piedrasCapturadasNegras;
+        piedrasCapturadasBlancas = original.piedrasCapturadasBlancas;
+        hash = original.hash;
     }
 
     /**
@@ -44,85 +171,870 @@ public class Tablero {
      * @throws CoordenadasIncorrectasException en caso de que se coloque fuera del tablero.
      */
     public void colocar(Piedra piedra, Celda celda) throws CoordenadasIncorrectasException {
-        celda = obtenerCeldaConMismasCoordenadas(celda);
-        List<Grupo> gruposEliminados = new ArrayList<>();
-        List<Grupo> gruposAnterioresBlanco = obtenerGruposDelColor(Color.BLANCO);
-        List<Grupo> gruposAnterioresNegro = obtenerGruposDelColor(Color.NEGRO);
-        piedra.colocarEn(celda);
-        celda.establecerPiedra(piedra);
-        Grupo nuevo = new Grupo(celda, this);
-        for (Celda adyacente : obtenerCeldasAdyacentes(celda)) {
-            if (adyacente.obtenerColorDePiedra() == celda.obtenerColorDePiedra()) {
-                for (Grupo grupo : grupos) {
-                    if (grupo.contiene(adyacente)) {
-                        nuevo.añadirCeldas(grupo);
-                        gruposEliminados.add(grupo);
-                    }
+        colocar(piedra.obtenerColor(), piedra, obtenerCeldaConMismasCoordenadas(celda), null);
+    }
+
+    /**
+     * Coloca una piedra de un color sin crear ningún objeto piedra; la celda
+     * solo guarda el color hasta que se consulte su piedra.
+     *
+     * @param color Color de la piedra a colocar.
+     * @param celda Celda donde va a ser colocada.
+     * @throws CoordenadasIncorrectasException en caso de que se coloque fuera del tablero.
+     */
+    public void colocar(Color color, Celda celda) throws CoordenadasIncorrectasException {
+        colocar(color, null, obtenerCeldaConMismasCoordenadas(celda), null);
+    }
+
+    /**
+     * Coloca una piedra como en {@link #colocar(Piedra, Celda)} y devuelve el registro
+     * necesario para deshacer la jugada con {@link #deshacer(RegistroJugada)}.
+     *
+     * @param piedra Piedra a colocar.
+     * @param celda  Celda donde va a ser colocada.
+     * @return Registro de la jugada.
+     * @throws CoordenadasIncorrectasException en caso de que se coloque fuera del tablero.
+     */
+    public RegistroJugada aplicar(Piedra piedra, Celda celda) throws CoordenadasIncorrectasException {
+        return aplicar(piedra.obtenerColor(), piedra, obtenerCeldaConMismasCoordenadas(celda));
+    }
+
+    /**
+     * Coloca una piedra de un color como en {@link #colocar(Color, Celda)} y devuelve
+     * el registro necesario para deshacer la jugada con {@link #deshacer(RegistroJugada)}.
+     *
+     * @param color Color de la piedra a colocar.
+     * @param celda Celda donde va a ser colocada.
+     * @return Registro de la jugada.
+     * @throws CoordenadasIncorrectasException en caso de que se coloque fuera del tablero.
+     */
+    public RegistroJugada aplicar(Color color, Celda celda) throws CoordenadasIncorrectasException {
+        return aplicar(color, null, obtenerCeldaConMismasCoordenadas(celda));
+    }
+
+    /**
+     * Coloca una piedra anotando la jugada en un registro nuevo.
+     *
+     * @param color  Color de la piedra a colocar.
+     * @param piedra Piedra a enlazar en la celda, o <code>null</code> para guardar solo el color.
+     * @param celda  Celda del tablero donde va a ser colocada.
+     * @return Registro de la jugada.
+     */
+    private RegistroJugada aplicar(Color color, Piedra piedra, Celda celda) {
+        RegistroJugada registro = new RegistroJugada(celda, color, obtenerIndice(celda), hash,
+                piedrasCapturadasNegras, piedrasCapturadasBlancas);
+        colocar(color, piedra, celda, registro);
+        registro.establecerHashPosterior(hash);
+        return registro;
+    }
+
+    /**
+     * Ocupa una celda del tablero, une los grupos y resuelve las capturas.
+     *
+     * @param color    Color de la piedra a colocar.
+     * @param piedra   Piedra a enlazar en la celda, o <code>null</code> para guardar solo el color.
+     * @param celda    Celda del tablero donde va a ser colocada.
+     * @param registro Registro donde anotar lo necesario para deshacer, o <code>null</code>.
+     */
+    private void colocar(Color color, Piedra piedra, Celda celda, RegistroJugada registro) {
+        assert celda.estaVacia() : "La celda [" + celda.toString() + "] no está vacía";
+        if (piedra == null) {
+            celda.establecerColor(color);
+        } else {
+            piedra.colocarEn(celda);
+            celda.establecerPiedra(piedra);
+        }
+        int indice = obtenerIndice(celda);
+        byte codigo = obtenerCodigo(color);
+        establecerContenido(indice, ocupar(indice, color, celda), codigo);
+        hash ^= obtenerClaveZobrist(indice, color);
+        if (registro != null) {
+            for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+                int vecino = almacen.obtenerVecino(indice, i);
+                if (esPiedra(obtenerContenido(vecino))) {
+                    int raiz = buscarRaiz(vecino);
+                    int r = almacen.obtenerRanura(raiz);
+                    registro.guardarRaiz(raiz, tamaño[r], libertades[r], sumaLibertades[r], sumaCuadrados[r], siguiente[r]);
                 }
             }
         }
-        grupos.removeAll(gruposEliminados);
-        grupos.add(nuevo);
-        if (piedra.obtenerColor() == Color.BLANCO) {
-            gruposAnterioresBlanco.add(nuevo);
-            gruposAnterioresBlanco.removeAll(gruposEliminados);
+        for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+            int vecino = almacen.obtenerVecino(indice, i);
+            byte contenido = obtenerContenido(vecino);
+            if (contenido == VACIA) {
+                añadirLibertad(indice, vecino);
+            } else if (contenido != BORDE) {
+                quitarLibertad(buscarRaiz(vecino), indice);
+            }
+        }
+        for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+            int vecino = almacen.obtenerVecino(indice, i);
+            if (obtenerContenido(vecino) == codigo) {
+                unir(indice, vecino);
+            }
+        }
+        eliminarCapturas(color, indice, registro);
+        if (esPiedra(obtenerContenido(indice))) {
+            actualizarAtari(buscarRaiz(indice));
+        }
+        for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+            int vecino = almacen.obtenerVecino(indice, i);
+            if (esPiedra(obtenerContenido(vecino))) {
+                actualizarAtari(buscarRaiz(vecino));
+            }
+        }
+    }
+
+    /**
+     * Asigna una ranura a una celda que pasa a estar ocupada, dejándola como un grupo
+     * aislado sin libertades, y actualiza los contadores de piedras. No cambia el código
+     * de la celda, que se establece aparte.
+     *
+     * @param indice Índice de la celda.
+     * @param color  Color de la piedra.
+     * @param celda  Celda del tablero, ya con la piedra.
+     * @return Ranura de la celda.
+     */
+    private int ocupar(int indice, Color color, Celda celda) {
+        int r = almacen.ocupar(indice);
+        if (r >= padre.length) {
+            crecer(Math.max(r + 1, padre.length * 2));
+        }
+        celdas[r] = celda;
+        padre[r] = indice;
+        tamaño[r] = 1;
+        siguiente[r] = indice;
+        libertades[r] = 0;
+        sumaLibertades[r] = 0;
+        sumaCuadrados[r] = 0;
+        grupos[r] = null;
+        numeroPiedras[color.ordinal()]++;
+        numeroCeldasVacias--;
+        return r;
+    }
+
+    /**
+     * Vacía una celda ocupada y actualiza los contadores de piedras, conservando
+     * su ranura hasta que se libere.
+     *
+     * @param indice Índice de la celda.
+     * @param color  Color de la piedra que había.
+     */
+    private void vaciar(int indice, Color color) {
+        int r = almacen.obtenerRanura(indice);
+        celdas[r].eliminarPiedra();
+        establecerContenido(indice, r, VACIA);
+        numeroPiedras[color.ordinal()]--;
+        numeroCeldasVacias++;
+    }
+
+    /**
+     * Devuelve al almacén la ranura de una celda ya vaciada, sacándola antes de
+     * los grupos en atari.
+     *
+     * @param indice Índice de la celda.
+     * @param color  Color de la piedra que había.
+     */
+    private void liberar(int indice, Color color) {
+        int r = almacen.obtenerRanura(indice);
+        enAtari[color.ordinal()].quitar(r);
+        grupos[r] = null;
+        if (!almacen.reservaCeldasVacias()) {
+            celdas[r] = null;
+        }
+        almacen.liberar(indice);
+    }
+
+    /**
+     * Amplía los vectores de ranuras conservando su contenido.
+     *
+     * @param capacidad Nueva capacidad.
+     */
+    private void crecer(int capacidad) {
+        codigos = Arrays.copyOf(codigos, capacidad);
+        celdas = Arrays.copyOf(celdas, capacidad);
+        padre = Arrays.copyOf(padre, capacidad);
+        tamaño = Arrays.copyOf(tamaño, capacidad);
+        siguiente = Arrays.copyOf(siguiente, capacidad);
+        libertades = Arrays.copyOf(libertades, capacidad);
+        sumaLibertades = Arrays.copyOf(sumaLibertades, capacidad);
+        sumaCuadrados = Arrays.copyOf(sumaCuadrados, capacidad);
+        grupos = Arrays.copyOf(grupos, capacidad);
+        for (ConjuntoIndices conjunto : enAtari) {
+            conjunto.ampliar(capacidad);
+        }
+    }
+
+    /**
+     * Suma una libertad al grupo de una raíz, junto con su índice y su cuadrado,
+     * que permiten saber si todas las libertades del grupo son la misma celda.
+     *
+     * @param raiz     Índice de la raíz del grupo.
+     * @param libertad Índice de la celda vacía adyacente.
+     */
+    private void añadirLibertad(int raiz, int libertad) {
+        int r = almacen.obtenerRanura(raiz);
+        libertades[r]++;
+        sumaLibertades[r] += libertad;
+        sumaCuadrados[r] += (long) libertad * libertad;
+    }
+
+    /**
+     * Resta una libertad al grupo de una raíz, junto con su índice y su cuadrado.
+     *
+     * @param raiz     Índice de la raíz del grupo.
+     * @param libertad Índice de la celda que deja de ser libertad.
+     */
+    private void quitarLibertad(int raiz, int libertad) {
+        int r = almacen.obtenerRanura(raiz);
+        libertades[r]--;
+        sumaLibertades[r] -= libertad;
+        sumaCuadrados[r] -= (long) libertad * libertad;
+    }
+
+    /**
+     * Comprueba si el grupo de una ranura raíz tiene una única libertad. Las libertades se
+     * cuentan una vez por cada piedra adyacente, así que el grupo está en atari cuando todas
+     * ellas son la misma celda, es decir, cuando n · Σi² = (Σi)². Una celda solo puede
+     * tocar {@link #NUMERO_SENTIDOS} piedras, así que con más libertades no hay atari y
+     * la igualdad solo se calcula con n pequeño, sin desbordar aunque los índices sean grandes.
+     *
+     * @param r Ranura de la raíz del grupo.
+     * @return <code>true</code> si solo le queda una libertad.
+     */
+    private boolean tieneUnaLibertad(int r) {
+        return libertades[r] > 0 && libertades[r] <= NUMERO_SENTIDOS
+                && libertades[r] * sumaCuadrados[r] == sumaLibertades[r] * sumaLibertades[r];
+    }
+
+    /**
+     * Actualiza la pertenencia de una celda ocupada a los grupos en atari de su color,
+     * quitándola si ya no es la raíz de un grupo con una única libertad.
+     *
+     * @param indice Índice de la celda.
+     */
+    private void actualizarAtari(int indice) {
+        int r = almacen.obtenerRanura(indice);
+        ConjuntoIndices conjunto = enAtari[codigos[r] - 1];
+        if (padre[r] == indice && tieneUnaLibertad(r)) {
+            conjunto.añadir(r);
         } else {
-            gruposAnterioresNegro.add(nuevo);
-            gruposAnterioresNegro.removeAll(gruposEliminados);
+            conjunto.quitar(r);
         }
-        eliminarCapturas(piedra.obtenerColor(), gruposAnterioresBlanco, gruposAnterioresNegro);
     }
 
     /**
-     * Elimina todas las capturas que hayan ocurrido, según el color del jugador que realice la jugada.
+     * Deshace la última jugada aplicada en el tablero, devolviendo las piedras capturadas,
+     * separando los grupos unidos y restaurando los contadores de capturas y el hash.
      *
-     * @param colorConPrioridad Color del la piedra colocada.
-     * @param gruposAnterioresBlanco Grupos de color blanco que había antes de colocar.
-     * @param gruposAnterioresNegro Grupos de color negro que había antes de colocar.
-     */
-    private void eliminarCapturas(Color colorConPrioridad, List<Grupo> gruposAnterioresBlanco, List<Grupo> gruposAnterioresNegro){
-        Color colorSinPrioridad;
-        List<Grupo> grupoConPrioridad;
-        List<Grupo> grupoSinPrioridad;
-        gruposAnterioresBlanco.removeAll(obtenerGruposDelColor(Color.BLANCO));
-        gruposAnterioresNegro.removeAll(obtenerGruposDelColor(Color.NEGRO));
-        colorSinPrioridad = colorConPrioridad == Color.BLANCO ? Color.NEGRO : Color.BLANCO;
-        if (colorConPrioridad == Color.NEGRO) {
-            grupoConPrioridad = gruposAnterioresNegro;
-            grupoSinPrioridad = gruposAnterioresBlanco;
+     * @param registro Registro devuelto por {@link #aplicar(Piedra, Celda)} en la última jugada.
+     */
+    public void deshacer(RegistroJugada registro) {
+        assert hash == registro.obtenerHashPosterior() : "Solo se puede deshacer la última jugada";
+        for (int grupo = registro.obtenerNumeroGruposCapturados() - 1; grupo >= 0; grupo--) {
+            restaurarGrupoCapturado(registro, grupo);
         }
-        else {
-            grupoConPrioridad = gruposAnterioresBlanco;
-            grupoSinPrioridad = gruposAnterioresNegro;
+        int indice = registro.obtenerIndice();
+        Color color = registro.obtenerColor();
+        vaciar(indice, color);
+        liberar(indice, color);
+        for (int i = registro.obtenerNumeroRaices() - 1; i >= 0; i--) {
+            int raiz = registro.obtenerRaiz(i);
+            int r = almacen.obtenerRanura(raiz);
+            padre[r] = raiz;
+            tamaño[r] = registro.obtenerTamaño(i);
+            libertades[r] = registro.obtenerLibertades(i);
+            sumaLibertades[r] = registro.obtenerSumaLibertades(i);
+            sumaCuadrados[r] = registro.obtenerSumaCuadrados(i);
+            siguiente[r] = registro.obtenerSiguiente(i);
         }
-        if (eliminarColor(grupoSinPrioridad, colorSinPrioridad) == 0 && ! estaCompleto()) {
-            eliminarColor(grupoConPrioridad, colorConPrioridad);
+        for (int i = 0; i < registro.obtenerNumeroRaices(); i++) {
+            int raiz = registro.obtenerRaiz(i);
+            if (obtenerContenido(raiz) == obtenerCodigo(color)) {
+                int actual = raiz;
+                do {
+                    int r = almacen.obtenerRanura(actual);
+                    padre[r] = raiz;
+                    actual = siguiente[r];
+                } while (actual != raiz);
+            }
+        }
+        for (int i = 0; i < registro.obtenerNumeroRaices(); i++) {
+            int raiz = registro.obtenerRaiz(i);
+            grupos[almacen.obtenerRanura(raiz)] = null;
+            actualizarAtari(raiz);
         }
+        hash = registro.obtenerHashAnterior();
+        piedrasCapturadasNegras = registro.obtenerCapturadasAnteriores(Color.NEGRO);
+        piedrasCapturadasBlancas = registro.obtenerCapturadasAnteriores(Color.BLANCO);
     }
 
     /**
-     * Elimina todas las piedras de una lista de grupos.
+     * Vuelve a colocar un grupo capturado en una jugada, reconstruyendo su lista de piedras
+     * en el mismo orden y retirando las libertades que había devuelto a sus vecinos.
      *
-     * @param gruposEliminados Lista de grupos a vaciar.
-     * @param color Color de las piedras.
-     * @return Número de piedras eliminadas.
+     * @param registro Registro de la jugada.
+     * @param grupo    Número del grupo capturado en el registro.
+     */
+    private void restaurarGrupoCapturado(RegistroJugada registro, int grupo) {
+        int inicio = registro.obtenerInicioGrupoCapturado(grupo);
+        int fin = registro.obtenerFinGrupoCapturado(grupo);
+        int raiz = registro.obtenerCapturada(inicio);
+        Color color = registro.obtenerColorGrupoCapturado(grupo);
+        for (int i = inicio; i < fin; i++) {
+            int actual = registro.obtenerCapturada(i);
+            Celda celda = obtenerCelda(actual);
+            celda.establecerColor(color);
+            int r = ocupar(actual, color, celda);
+            establecerContenido(actual, r, obtenerCodigo(color));
+            padre[r] = raiz;
+            siguiente[r] = registro.obtenerCapturada(i + 1 < fin ? i + 1 : inicio);
+        }
+        tamaño[almacen.obtenerRanura(raiz)] = fin - inicio;
+        for (int i = inicio; i < fin; i++) {
+            int actual = registro.obtenerCapturada(i);
+            for (int j = 0; j < NUMERO_SENTIDOS; j++) {
+                int vecino = almacen.obtenerVecino(actual, j);
+                if (esPiedra(obtenerContenido(vecino))) {
+                    int raizVecino = buscarRaiz(vecino);
+                    if (raizVecino != raiz) {
+                        quitarLibertad(raizVecino, actual);
+                        actualizarAtari(raizVecino);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Elimina todas las capturas que hayan ocurrido, según el color del jugador que realice la jugada.
+     * Solo los grupos rivales adyacentes a la piedra colocada y el grupo de la propia piedra
+     * pueden haberse quedado sin libertades, así que no se recorre el resto del tablero.
+     *
+     * @param colorConPrioridad Color del la piedra colocada.
+     * @param indice Índice de la celda donde se ha colocado la piedra.
+     * @param registro Registro donde anotar las capturas, o <code>null</code>.
      */
-    private int eliminarColor(List<Grupo> gruposEliminados, Color color) {
+    private void eliminarCapturas(Color colorConPrioridad, int indice, RegistroJugada registro) {
+        Color colorSinPrioridad = colorConPrioridad == Color.BLANCO ? Color.NEGRO : Color.BLANCO;
+        byte codigoSinPrioridad = obtenerCodigo(colorSinPrioridad);
         int eliminadas = 0;
-        for (Grupo grupo : gruposEliminados) {
-            eliminadas += grupo.obtenerTamaño();
-            grupo.eliminarPiedras();
-            grupos.remove(grupo);
+        for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+            int vecino = almacen.obtenerVecino(indice, i);
+            if (obtenerContenido(vecino) == codigoSinPrioridad) {
+                int raiz = buscarRaiz(vecino);
+                if (libertades[almacen.obtenerRanura(raiz)] == 0) {
+                    eliminadas += eliminarGrupo(raiz, registro);
+                }
+            }
+        }
+        sumarCapturadas(colorSinPrioridad, eliminadas);
+        if (eliminadas == 0 && ! estaCompleto()) {
+            int raiz = buscarRaiz(indice);
+            if (libertades[almacen.obtenerRanura(raiz)] == 0) {
+                sumarCapturadas(colorConPrioridad, eliminarGrupo(raiz, registro));
+            }
         }
+    }
+
+    /**
+     * Suma piedras al contador de piedras capturadas de un color.
+     *
+     * @param color Color de las piedras.
+     * @param eliminadas Número de piedras capturadas.
+     */
+    private void sumarCapturadas(Color color, int eliminadas) {
         if (color == Color.BLANCO) {
             piedrasCapturadasBlancas += eliminadas;
         }
         else {
             piedrasCapturadasNegras += eliminadas;
         }
+    }
+
+    /**
+     * Obtiene el código con el que se guarda una piedra de un color en el contenido del tablero.
+     *
+     * @param color Color de la piedra.
+     * @return Código distinto de {@link #VACIA}.
+     */
+    static byte obtenerCodigo(Color color) {
+        return (byte) (color.ordinal() + 1);
+    }
+
+    /**
+     * Obtiene el código de una posición: el de su ranura, o vacía si no tiene ranura
+     * dentro del tablero.
+     *
+     * @param indice Índice de la posición, o {@link AlmacenDeCeldas#FUERA}.
+     * @return Código de la posición.
+     */
+    private byte obtenerContenido(int indice) {
+        int r = almacen.obtenerRanura(indice);
+        if (r < 0) {
+            return indice == AlmacenDeCeldas.FUERA ? BORDE : VACIA;
+        }
+        return codigos[r];
+    }
+
+    /**
+     * Cambia el código de una celda y su entrada en la fila de las instantáneas. La fila
+     * se copia antes si la comparte con alguna instantánea, para que las ya generadas no
+     * cambien, o si no le queda sitio; la copia dobla su capacidad sin pasar del número
+     * de columnas, así que la fila crece con sus piedras y no con el ancho del tablero.
+     *
+     * @param indice Índice de la celda.
+     * @param r      Ranura de la celda.
+     * @param codigo Nuevo código de la celda.
+     */
+    private void establecerContenido(int indice, int r, byte codigo) {
+        codigos[r] = codigo;
+        numeroModificaciones++;
+        int fila = almacen.obtenerFila(indice);
+        int longitud = longitudesFila[fila];
+        if (filaCompartida[fila] || (filasInstantanea[fila].length == longitud && longitud < columnas)) {
+            filasInstantanea[fila] = Arrays.copyOf(filasInstantanea[fila],
+                    Math.min(columnas, Math.max(longitud + 1, longitud * 2)));
+            filaCompartida[fila] = false;
+        }
+        longitudesFila[fila] = Instantanea.cambiarEntrada(filasInstantanea[fila], longitud,
+                almacen.obtenerColumna(indice), codigo);
+        ultimaInstantanea = null;
+    }
+
+    /**
+     * Obtiene una instantánea inmutable de la posición actual. No copia el tablero:
+     * la instantánea comparte las filas con el tablero, que solo copia una fila
+     * la próxima vez que la modifica, y todas las filas en las que nunca se ha
+     * colocado una piedra son la misma fila sin piedras. Si el tablero no ha cambiado
+     * desde la última instantánea, se devuelve la misma.
+     *
+     * @return Instantánea de la posición.
+     */
+    public Instantanea obtenerInstantanea() {
+        if (ultimaInstantanea == null) {
+            Arrays.fill(filaCompartida, true);
+            ultimaInstantanea = new Instantanea(columnas, filasInstantanea.clone(), longitudesFila.clone(), hash,
+                    numeroCeldasVacias,
+                    piedrasCapturadasNegras, piedrasCapturadasBlancas);
+        }
+        return ultimaInstantanea;
+    }
+
+    /**
+     * Calcula si este tablero tiene las mismas piedras que una instantánea.
+     *
+     * @param instantanea Instantánea a comparar.
+     * @return <code>true</code> si son iguales, <code>false</code> en caso contrario.
+     */
+    public boolean esIgual(Instantanea instantanea) {
+        return hash == instantanea.obtenerHash() && columnas == instantanea.obtenerNumeroColumnas()
+                && instantanea.tieneLasMismasFilas(filasInstantanea, longitudesFila);
+    }
+
+    /**
+     * Coloca en este tablero, que debe estar vacío, las piedras de una instantánea sin
+     * resolver capturas, y reconstruye los grupos, sus libertades y los grupos en atari.
+     * Solo recorre las piedras de cada fila, así que en un tablero disperso su coste
+     * depende de las piedras y del número de filas, no del área.
+     *
+     * @param instantanea Instantánea con las mismas dimensiones.
+     */
+    void cargar(Instantanea instantanea) {
+        assert numeroCeldasVacias == filas * columnas;
+        for (int i = 0; i < filas; i++) {
+            int[] fila = instantanea.obtenerFila(i);
+            int longitud = instantanea.obtenerLongitudFila(i);
+            for (int j = 0; j < longitud; j++) {
+                byte codigo = Instantanea.obtenerCodigoDeEntrada(fila[j]);
+                int indice = almacen.obtenerIndice(i, Instantanea.obtenerColumnaDeEntrada(fila[j]));
+                Color color = COLORES[codigo - 1];
+                Celda celda = obtenerCelda(indice);
+                celda.establecerColor(color);
+                codigos[ocupar(indice, color, celda)] = codigo;
+                hash ^= obtenerClaveZobrist(indice, color);
+            }
+            filasInstantanea[i] = fila;
+            longitudesFila[i] = longitud;
+            filaCompartida[i] = true;
+        }
+        for (int r = 0; r < almacen.obtenerNumeroRanuras(); r++) {
+            if (esPiedra(codigos[r])) {
+                int indice = almacen.obtenerIndiceDeRanura(r);
+                for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+                    int vecino = almacen.obtenerVecino(indice, i);
+                    if (obtenerContenido(vecino) == VACIA) {
+                        añadirLibertad(indice, vecino);
+                    }
+                }
+            }
+        }
+        for (int r = 0; r < almacen.obtenerNumeroRanuras(); r++) {
+            if (esPiedra(codigos[r])) {
+                int indice = almacen.obtenerIndiceDeRanura(r);
+                for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+                    int vecino = almacen.obtenerVecino(indice, i);
+                    if (obtenerContenido(vecino) == codigos[r]) {
+                        unir(indice, vecino);
+                    }
+                }
+            }
+        }
+        for (int r = 0; r < almacen.obtenerNumeroRanuras(); r++) {
+            if (esPiedra(codigos[r])) {
+                actualizarAtari(almacen.obtenerIndiceDeRanura(r));
+            }
+        }
+        assert hash == instantanea.obtenerHash();
+        assert numeroCeldasVacias == instantanea.obtenerNumeroCeldasVacias();
+        assert comprobarGrupos() : "Los grupos reconstruidos no coinciden con los de la instantánea";
+        numeroModificaciones++;
+        piedrasCapturadasNegras = instantanea.obtenerNumeroPiedrasCapturadas(Color.NEGRO);
+        piedrasCapturadasBlancas = instantanea.obtenerNumeroPiedrasCapturadas(Color.BLANCO);
+        ultimaInstantanea = instantanea;
+    }
+
+    /**
+     * Comprueba si un código del contenido del tablero corresponde a una piedra.
+     *
+     * @param codigo Código de la celda.
+     * @return <code>true</code> si no es ni {@link #VACIA} ni {@link #BORDE}.
+     */
+    private static boolean esPiedra(byte codigo) {
+        return codigo != VACIA && codigo != BORDE;
+    }
+
+    /**
+     * Obtiene la clave Zobrist de una piedra de un color en una celda del almacén.
+     *
+     * @param indice Índice de la celda.
+     * @param color  Color de la piedra.
+     * @return Clave de 64 bits.
+     */
+    private long obtenerClaveZobrist(int indice, Color color) {
+        return obtenerClaveZobrist(almacen.obtenerFila(indice), almacen.obtenerColumna(indice), color);
+    }
+
+    /**
+     * Obtiene la clave Zobrist de una piedra de un color en una posición. Se calcula
+     * mezclando los bits de las coordenadas y el color, de modo que dos tableros usan
+     * las mismas claves sin compartir ninguna tabla, aunque guarden las celdas de
+     * forma distinta. El hash de un tablero es el o exclusivo de las claves de sus piedras.
+     *
+     * @param fila    Fila de la celda.
+     * @param columna Columna de la celda.
+     * @param color   Color de la piedra.
+     * @return Clave de 64 bits.
+     */
+    public static long obtenerClaveZobrist(int fila, int columna, Color color) {
+        long posicion = (long) fila << 32 | columna;
+        long clave = (posicion * COLORES.length + color.ordinal() + 1) * 0x9E3779B97F4A7C15L;
+        clave = (clave ^ (clave >>> 30)) * 0xBF58476D1CE4E5B9L;
+        clave = (clave ^ (clave >>> 27)) * 0x94D049BB133111EBL;
+        return clave ^ (clave >>> 31);
+    }
+
+    /**
+     * Obtiene el índice de una celda en las estructuras de grupos.
+     *
+     * @param celda Celda del tablero.
+     * @return Índice de la celda.
+     */
+    private int obtenerIndice(Celda celda) {
+        return almacen.obtenerIndice(celda.obtenerFila(), celda.obtenerColumna());
+    }
+
+    /**
+     * Obtiene la celda que corresponde a un índice de las estructuras de grupos. Si la
+     * posición no tiene ranura, la celda está vacía y se crea una nueva.
+     *
+     * @param indice Índice de la celda.
+     * @return Celda del tablero.
+     */
+    private Celda obtenerCelda(int indice) {
+        int r = almacen.obtenerRanura(indice);
+        return r < 0 ? new Celda(almacen.obtenerFila(indice), almacen.obtenerColumna(indice)) : celdas[r];
+    }
+
+    /**
+     * Busca la raíz del grupo al que pertenece una celda ocupada, comprimiendo el camino
+     * recorrido para que las siguientes búsquedas sean directas.
+     *
+     * @param indice Índice de la celda.
+     * @return Índice de la raíz del grupo.
+     */
+    private int buscarRaiz(int indice) {
+        int raiz = indice;
+        for (int p = padre[almacen.obtenerRanura(raiz)]; p != raiz; p = padre[almacen.obtenerRanura(raiz)]) {
+            raiz = p;
+        }
+        while (indice != raiz) {
+            int r = almacen.obtenerRanura(indice);
+            indice = padre[r];
+            padre[r] = raiz;
+        }
+        return raiz;
+    }
+
+    /**
+     * Une los grupos de dos celdas, colgando el menor del mayor
+     * y enlazando sus listas de piedras.
+     *
+     * @param a Índice de una celda del primer grupo.
+     * @param b Índice de una celda del segundo grupo.
+     */
+    private void unir(int a, int b) {
+        int raizA = buscarRaiz(a);
+        int raizB = buscarRaiz(b);
+        if (raizA == raizB) {
+            return;
+        }
+        int ra = almacen.obtenerRanura(raizA);
+        int rb = almacen.obtenerRanura(raizB);
+        if (tamaño[ra] < tamaño[rb]) {
+            int auxiliar = raizA;
+            raizA = raizB;
+            raizB = auxiliar;
+            auxiliar = ra;
+            ra = rb;
+            rb = auxiliar;
+        }
+        padre[rb] = raizA;
+        grupos[ra] = null;
+        grupos[rb] = null;
+        tamaño[ra] += tamaño[rb];
+        libertades[ra] += libertades[rb];
+        sumaLibertades[ra] += sumaLibertades[rb];
+        sumaCuadrados[ra] += sumaCuadrados[rb];
+        enAtari[codigos[rb] - 1].quitar(rb);
+        int auxiliar = siguiente[ra];
+        siguiente[ra] = siguiente[rb];
+        siguiente[rb] = auxiliar;
+    }
+
+    /**
+     * Quita del tablero todas las piedras de un grupo y devuelve las libertades que
+     * ocupaban a los grupos vecinos. Primero se vacían todas las celdas, para que los
+     * vecinos del propio grupo no cuenten como piedras, y después se liberan sus ranuras.
+     *
+     * @param raiz Índice de la raíz del grupo.
+     * @param registro Registro donde anotar las piedras quitadas, o <code>null</code>.
+     * @return Número de piedras quitadas.
+     */
+    private int eliminarGrupo(int raiz, RegistroJugada registro) {
+        int eliminadas = 0;
+        int actual = raiz;
+        Color color = COLORES[obtenerContenido(raiz) - 1];
+        if (registro != null) {
+            registro.iniciarGrupoCapturado(color);
+        }
+        do {
+            if (registro != null) {
+                registro.añadirCapturada(actual);
+            }
+            hash ^= obtenerClaveZobrist(actual, color);
+            vaciar(actual, color);
+            eliminadas++;
+            actual = siguiente[almacen.obtenerRanura(actual)];
+        } while (actual != raiz);
+        do {
+            for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+                int vecino = almacen.obtenerVecino(actual, i);
+                if (esPiedra(obtenerContenido(vecino))) {
+                    int raizVecino = buscarRaiz(vecino);
+                    añadirLibertad(raizVecino, actual);
+                    actualizarAtari(raizVecino);
+                }
+            }
+            int proxima = siguiente[almacen.obtenerRanura(actual)];
+            liberar(actual, color);
+            actual = proxima;
+        } while (actual != raiz);
         return eliminadas;
     }
 
+    /**
+     * Obtiene el grupo cuya raíz es una celda. El grupo se construye recorriendo su lista
+     * de piedras la primera vez que se pide y se reutiliza hasta que el grupo cambia.
+     *
+     * @param raiz Índice de la raíz del grupo.
+     * @return Grupo con todas sus celdas.
+     */
+    private Grupo construirGrupo(int raiz) {
+        int r = almacen.obtenerRanura(raiz);
+        Grupo grupo = grupos[r];
+        if (grupo == null) {
+            grupo = new Grupo(celdas[r], this);
+            for (int actual = siguiente[r]; actual != raiz; ) {
+                int ranura = almacen.obtenerRanura(actual);
+                grupo.añadirCelda(celdas[ranura]);
+                actual = siguiente[ranura];
+            }
+            grupos[r] = grupo;
+        }
+        return grupo;
+    }
+
+    /**
+     * Reserva el número identificativo de un grupo nuevo de este tablero.
+     *
+     * @return Número que no tiene ningún otro grupo del tablero.
+     */
+    int generarIdGrupo() {
+        return siguienteIdGrupo++;
+    }
+
+    /**
+     * Deja de reutilizar un grupo que se ha modificado fuera del tablero. Los grupos
+     * reutilizados empiezan por la celda de su raíz, así que basta buscar la raíz de
+     * su primera celda para saber si el grupo está guardado.
+     *
+     * @param grupo Grupo modificado.
+     */
+    void descartarGrupo(Grupo grupo) {
+        int indice = obtenerIndice(grupo.obtenerPrimeraCelda());
+        if (esPiedra(obtenerContenido(indice))) {
+            int r = almacen.obtenerRanura(buscarRaiz(indice));
+            if (grupos[r] == grupo) {
+                grupos[r] = null;
+            }
+        }
+    }
+
+    /**
+     * Quita del tablero las piedras de un grupo. El grupo tiene que coincidir con uno
+     * de los grupos actuales del tablero: un grupo obtenido antes de unirse a otro,
+     * o al que se han añadido celdas, ya no describe las piedras del tablero y no se
+     * puede quitar. Si ya no queda ninguna de sus piedras, no hace nada.
+     *
+     * @param grupo Grupo a quitar.
+     * @throws IllegalStateException en caso de que el grupo no sea un grupo actual del tablero.
+     */
+    void retirarGrupo(Grupo grupo) {
+        List<Celda> celdasGrupo = grupo.obtenerCeldas();
+        int raiz = -1;
+        int vacias = 0;
+        for (Celda celda : celdasGrupo) {
+            int indice = obtenerIndice(obtenerCeldaConMismasCoordenadas(celda));
+            if (!esPiedra(obtenerContenido(indice))) {
+                vacias++;
+            } else if (raiz == -1) {
+                raiz = buscarRaiz(indice);
+            } else if (buscarRaiz(indice) != raiz) {
+                raiz = -2;
+            }
+        }
+        if (vacias == celdasGrupo.size()) {
+            return;
+        }
+        if (vacias > 0 || raiz < 0 || tamaño[almacen.obtenerRanura(raiz)] != celdasGrupo.size()) {
+            throw new IllegalStateException("El grupo " + grupo.obtenerId() + " ya no es un grupo del tablero");
+        }
+        eliminarGrupo(raiz, null);
+    }
+
+    /**
+     * Obtiene el grupo del tablero que ocupa una celda. Cada celda conoce la raíz de
+     * su grupo, así que la consulta no recorre los grupos del tablero y, mientras el
+     * grupo no cambie, devuelve siempre el mismo objeto.
+     *
+     * @param celda Celda ocupada.
+     * @return Grupo que contiene la celda, o <code>null</code> si la celda está vacía.
+     * @throws CoordenadasIncorrectasException en caso de que no exista celda con esas coordenadas.
+     */
+    public Grupo obtenerGrupo(Celda celda) throws CoordenadasIncorrectasException {
+        int indice = obtenerIndice(obtenerCeldaConMismasCoordenadas(celda));
+        return esPiedra(obtenerContenido(indice)) ? construirGrupo(buscarRaiz(indice)) : null;
+    }
+
+    /**
+     * Cuenta las libertades del grupo que contiene una celda recorriendo sus piedras,
+     * sin usar los contadores que se mantienen al colocar y capturar.
+     *
+     * @param celda Celda del grupo.
+     * @return Número de libertades del grupo, o 0 si la celda está vacía.
+     */
+    int contarLibertadesDelGrupo(Celda celda) {
+        int indice = obtenerIndice(obtenerCeldaConMismasCoordenadas(celda));
+        if (!esPiedra(obtenerContenido(indice))) {
+            return 0;
+        }
+        Set<Integer> vistas = new HashSet<>();
+        int raiz = buscarRaiz(indice);
+        int actual = raiz;
+        do {
+            for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+                int vecino = almacen.obtenerVecino(actual, i);
+                if (obtenerContenido(vecino) == VACIA) {
+                    vistas.add(vecino);
+                }
+            }
+            actual = siguiente[almacen.obtenerRanura(actual)];
+        } while (actual != raiz);
+        return vistas.size();
+    }
+
+    /**
+     * Comprueba si el grupo que ocupa una celda tiene alguna libertad, consultando
+     * el contador que se mantiene al colocar, unir y capturar piedras.
+     *
+     * @param celda Celda del grupo.
+     * @return <code>true</code> si tiene al menos una libertad,
+     * <code>false</code> si no la tiene o la celda está vacía.
+     */
+    boolean estaVivo(Celda celda) {
+        int indice = obtenerIndice(obtenerCeldaConMismasCoordenadas(celda));
+        if (!esPiedra(obtenerContenido(indice))) {
+            return false;
+        }
+        return libertades[almacen.obtenerRanura(buscarRaiz(indice))] > 0;
+    }
+
+    /**
+     * Comprobación de consistencia para aserciones y pruebas: recorre la lista de piedras
+     * de cada grupo, cuenta de nuevo sus libertades sin usar los contadores y lo compara
+     * con el tamaño, las libertades y los grupos en atari que se mantienen al colocar y
+     * capturar piedras. Solo visita las ranuras ocupadas, así que su coste depende de las
+     * piedras y no del área.
+     *
+     * @return <code>true</code> si todos los grupos tienen el mismo tamaño y el mismo
+     * estado de libertades, <code>false</code> en caso contrario.
+     */
+    boolean comprobarGrupos() {
+        int piedras = 0;
+        for (int r = 0; r < almacen.obtenerNumeroRanuras(); r++) {
+            if (!esPiedra(codigos[r])) {
+                continue;
+            }
+            int raiz = almacen.obtenerIndiceDeRanura(r);
+            if (buscarRaiz(raiz) != raiz) {
+                continue;
+            }
+            Set<Integer> libres = new HashSet<>();
+            int contadas = 0;
+            int actual = raiz;
+            do {
+                if (codigos[almacen.obtenerRanura(actual)] != codigos[r] || buscarRaiz(actual) != raiz) {
+                    return false;
+                }
+                for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+                    int vecino = almacen.obtenerVecino(actual, i);
+                    if (obtenerContenido(vecino) == VACIA) {
+                        libres.add(vecino);
+                    }
+                }
+                contadas++;
+                actual = siguiente[almacen.obtenerRanura(actual)];
+            } while (actual != raiz);
+            if (tamaño[r] != contadas || libres.isEmpty() != (libertades[r] == 0)
+                    || (libres.size() == 1) != enAtari[codigos[r] - 1].contiene(r)) {
+                return false;
+            }
+            piedras += contadas;
+        }
+        return piedras == obtenerNumeroPiedras(Color.NEGRO) + obtenerNumeroPiedras(Color.BLANCO);
+    }
+
     /**
      * Obtiene la celda que se encuentra en una determinada posición.
      *
@@ -135,7 +1047,7 @@ public class Tablero {
         if (!estaEnTablero(fila, columna)) {
             throw new CoordenadasIncorrectasException("No existe una celda con coordenadas " + fila + ", " + columna);
         }
-        return celdas.get(fila).get(columna);
+        return obtenerCelda(almacen.obtenerIndice(fila, columna));
     }
 
     /**
@@ -175,21 +1087,22 @@ public class Tablero {
     }
 
     /**
-     * Recorre toda el tablero y cuenta el número de piedras de un determinado color.
+     * Cuenta el número de piedras de un determinado color.
      *
      * @param color Color de las piedras a buscar.
      * @return número de piedras encontradas.
      */
     public int obtenerNumeroPiedras(Color color) {
-        int cuenta = 0;
-        for (int i = 0; i < obtenerNumeroFilas(); i++) {
-            for (int j = 0; j < obtenerNumeroColumnas(); j++) {
-                if (!obtenerCelda(i, j).estaVacia() && obtenerCelda(i, j).obtenerColorDePiedra() == color) {
-                    cuenta++;
-                }
-            }
-        }
-        return cuenta;
+        return numeroPiedras[color.ordinal()];
+    }
+
+    /**
+     * Cuenta el número de celdas sin piedra.
+     *
+     * @return número de celdas vacías.
+     */
+    public int obtenerNumeroCeldasVacias() {
+        return numeroCeldasVacias;
     }
 
     /**
@@ -198,7 +1111,7 @@ public class Tablero {
      * @return número de filas.
      */
     public int obtenerNumeroFilas() {
-        return this.celdas.size();
+        return this.filas;
     }
 
     /**
@@ -207,7 +1120,7 @@ public class Tablero {
      * @return número de columnas.
      */
     public int obtenerNumeroColumnas() {
-        return this.celdas.get(0).size();
+        return this.columnas;
     }
 
     /**
@@ -216,14 +1129,7 @@ public class Tablero {
      * @return <code>true</code> si esta completo, <code>false</code> en caso contrario.
      */
     public boolean estaCompleto() {
-        for (int i = 0; i < obtenerNumeroFilas(); i++) {
-            for (int j = 0; j < obtenerNumeroColumnas(); j++) {
-                if (obtenerCelda(i, j).estaVacia()) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return numeroCeldasVacias == 0;
     }
 
     /**
@@ -234,18 +1140,50 @@ public class Tablero {
      * @throws CoordenadasIncorrectasException en caso de que no exista celda con esas coordenadas.
      */
     public List<Celda> obtenerCeldasAdyacentes(Celda celda) throws CoordenadasIncorrectasException {
-        celda = obtenerCeldaConMismasCoordenadas(celda);
-        List<Celda> celdas = new ArrayList<>();
-        for (Sentido sentido : Sentido.values()) {
-            int fila = celda.obtenerFila() + sentido.obtenerDesplazamientoFila();
-            int columna = celda.obtenerColumna() + sentido.obtenerDesplazamientoColumna();
-            if (estaEnTablero(fila, columna)) {
-                celdas.add(obtenerCelda(fila, columna));
+        int indice = obtenerIndice(obtenerCeldaConMismasCoordenadas(celda));
+        List<Celda> celdas = new ArrayList<>(NUMERO_SENTIDOS);
+        for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+            int vecino = almacen.obtenerVecino(indice, i);
+            if (obtenerContenido(vecino) != BORDE) {
+                celdas.add(obtenerCelda(vecino));
             }
         }
         return celdas;
     }
 
+    /**
+     * Obtiene el número de celdas adyacentes a una celda.
+     *
+     * @param celda Celda a la que se obtendrá sus adyacentes.
+     * @return Número de celdas adyacentes, entre 0 y 4.
+     * @throws CoordenadasIncorrectasException en caso de que no exista celda con esas coordenadas.
+     */
+    public int obtenerNumeroCeldasAdyacentes(Celda celda) throws CoordenadasIncorrectasException {
+        int indice = obtenerIndice(obtenerCeldaConMismasCoordenadas(celda));
+        int numero = 0;
+        for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+            if (obtenerContenido(almacen.obtenerVecino(indice, i)) != BORDE) {
+                numero++;
+            }
+        }
+        return numero;
+    }
+
+    /**
+     * Obtiene la celda adyacente a una celda en un sentido, sin crear listas. Recorriendo
+     * los sentidos se obtienen las mismas celdas que con {@link #obtenerCeldasAdyacentes(Celda)}
+     * y en el mismo orden.
+     *
+     * @param celda   Celda a la que se obtendrá su adyacente.
+     * @param sentido Sentido en el que está la adyacente.
+     * @return Celda adyacente, o <code>null</code> si queda fuera del tablero.
+     * @throws CoordenadasIncorrectasException en caso de que no exista celda con esas coordenadas.
+     */
+    public Celda obtenerCeldaAdyacente(Celda celda, Sentido sentido) throws CoordenadasIncorrectasException {
+        int vecino = almacen.obtenerVecino(obtenerIndice(obtenerCeldaConMismasCoordenadas(celda)), sentido.ordinal());
+        return obtenerContenido(vecino) == BORDE ? null : obtenerCelda(vecino);
+    }
+
     /**
      * Obtiene los grados de libertad de una determinada celda.
      *
@@ -254,9 +1192,10 @@ public class Tablero {
      * @throws CoordenadasIncorrectasException en caso de que no exista celda con esas coordenadas.
      */
     public int obtenerGradosDeLibertad(Celda celda) throws CoordenadasIncorrectasException {
+        int indice = obtenerIndice(obtenerCeldaConMismasCoordenadas(celda));
         int gradosDeLibertad = 0;
-        for (Celda celdasAdyacente : obtenerCeldasAdyacentes(celda)) {
-            if (celdasAdyacente.estaVacia()) {
+        for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+            if (obtenerContenido(almacen.obtenerVecino(indice, i)) == VACIA) {
                 gradosDeLibertad++;
             }
         }
@@ -269,15 +1208,22 @@ public class Tablero {
      * @return Copia.
      */
     public Tablero generarCopia() {
-        Tablero copia = new Tablero(obtenerNumeroFilas(), obtenerNumeroColumnas());
-        copia.piedrasCapturadasNegras = this.piedrasCapturadasNegras;
-        copia.piedrasCapturadasBlancas = this.piedrasCapturadasBlancas;
-        for (Grupo grupo : grupos) {
-            if (grupo.estaVivo()) {
-                grupo.generarCopiaEnOtroTablero(copia);
-            }
+        return new Tablero(this);
+    }
+
+    /**
+     * Crea un tablero vacío eligiendo la implementación según su área: los tableros con
+     * al menos {@link #CELDAS_MINIMAS_TABLERO_DISPERSO} celdas son dispersos.
+     *
+     * @param filas    número de filas
+     * @param columnas número columnas
+     * @return Tablero nuevo.
+     */
+    public static Tablero generarTablero(int filas, int columnas) {
+        if ((long) filas * columnas >= CELDAS_MINIMAS_TABLERO_DISPERSO) {
+            return new TableroDisperso(filas, columnas);
         }
-        return copia;
+        return new Tablero(filas, columnas);
     }
 
     /**
@@ -291,16 +1237,18 @@ public class Tablero {
     }
 
     /**
-     * Devuelve todos los grupos que tengan un determinado color.
+     * Devuelve todos los grupos que tengan un determinado color y al menos una libertad.
      *
      * @param color Color del grupo.
      * @return Lista de grupos con ese color.
      */
     private ArrayList<Grupo> obtenerGruposDelColor(Color color) {
         ArrayList<Grupo> gruposVivos = new ArrayList<>();
-        for (Grupo grupo : grupos) {
-            if (grupo.obtenerColor() == color) {
-                gruposVivos.add(grupo);
+        byte codigo = obtenerCodigo(color);
+        for (int r = 0; r < almacen.obtenerNumeroRanuras(); r++) {
+            int indice = almacen.obtenerIndiceDeRanura(r);
+            if (codigos[r] == codigo && padre[r] == indice && libertades[r] > 0) {
+                gruposVivos.add(construirGrupo(indice));
             }
         }
         return gruposVivos;
@@ -328,23 +1276,240 @@ public class Tablero {
     }
 
     /**
-     * Calcula si este tablero es igual a otro o no.
+     * Cuenta las piedras rivales que capturaría una piedra de un color colocada en una
+     * celda vacía, sin colocarla: son las de los grupos rivales adyacentes en atari,
+     * cuya única libertad es esa celda.
      *
-     * @param tablero Tableroç} a comparar.
-     * @return <code>true</code> si son iguales, <code>false</code> en caso contrario.
+     * @param color Color de la piedra a colocar.
+     * @param celda Celda vacía.
+     * @return Número de piedras rivales capturadas.
+     * @throws CoordenadasIncorrectasException en caso de que no exista celda con esas coordenadas.
      */
-    public boolean esIgual(Tablero tablero) {
-        if (obtenerNumeroFilas() != tablero.obtenerNumeroFilas()
-                || obtenerNumeroColumnas() != tablero.obtenerNumeroColumnas()) {
-            return false;
+    public int contarCapturasDeJugada(Color color, Celda celda) throws CoordenadasIncorrectasException {
+        int indice = obtenerIndice(obtenerCeldaConMismasCoordenadas(celda));
+        assert obtenerContenido(indice) == VACIA : "La celda [" + celda.toString() + "] no está vacía";
+        byte rival = obtenerCodigo(color == Color.BLANCO ? Color.NEGRO : Color.BLANCO);
+        int capturas = 0;
+        for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+            int vecino = almacen.obtenerVecino(indice, i);
+            if (obtenerContenido(vecino) == rival) {
+                int raiz = buscarRaiz(vecino);
+                int r = almacen.obtenerRanura(raiz);
+                if (tieneUnaLibertad(r) && !esRaizRepetida(indice, i, raiz)) {
+                    capturas += tamaño[r];
+                }
+            }
         }
-        for (int i = 0; i < obtenerNumeroFilas(); i++) {
-            for (int j = 0; j < obtenerNumeroColumnas(); j++) {
-                if (obtenerCelda(i, j).obtenerColorDePiedra() != tablero.obtenerCelda(i, j).obtenerColorDePiedra()) {
-                    return false;
+        return capturas;
+    }
+
+    /**
+     * Cuenta las piedras propias que se retirarían por suicidio al colocar una piedra
+     * de un color en una celda vacía, sin colocarla. Ocurre cuando la jugada no captura,
+     * la celda no tiene vecinas vacías, todos los grupos propios adyacentes están en atari
+     * y el tablero no quedaría completo.
+     *
+     * @param color Color de la piedra a colocar.
+     * @param celda Celda vacía.
+     * @return Número de piedras propias retiradas, incluida la colocada, o 0 si no hay suicidio.
+     * @throws CoordenadasIncorrectasException en caso de que no exista celda con esas coordenadas.
+     */
+    public int contarSuicidioDeJugada(Color color, Celda celda) throws CoordenadasIncorrectasException {
+        int indice = obtenerIndice(obtenerCeldaConMismasCoordenadas(celda));
+        if (numeroCeldasVacias <= 1 || contarCapturasDeJugada(color, celda) > 0) {
+            return 0;
+        }
+        byte propio = obtenerCodigo(color);
+        int retiradas = 1;
+        for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+            int vecino = almacen.obtenerVecino(indice, i);
+            byte contenido = obtenerContenido(vecino);
+            if (contenido == VACIA) {
+                return 0;
+            }
+            if (contenido == propio) {
+                int raiz = buscarRaiz(vecino);
+                int r = almacen.obtenerRanura(raiz);
+                if (!tieneUnaLibertad(r)) {
+                    return 0;
+                }
+                if (!esRaizRepetida(indice, i, raiz)) {
+                    retiradas += tamaño[r];
+                }
+            }
+        }
+        return retiradas;
+    }
+
+    /**
+     * Calcula el hash que tendría el tablero tras colocar una piedra de un color en
+     * una celda vacía, sin colocarla, teniendo en cuenta capturas y suicidio.
+     *
+     * @param color Color de la piedra a colocar.
+     * @param celda Celda vacía.
+     * @return Hash de la posición resultante.
+     * @throws CoordenadasIncorrectasException en caso de que no exista celda con esas coordenadas.
+     */
+    public long obtenerHashTrasJugada(Color color, Celda celda) throws CoordenadasIncorrectasException {
+        int indice = obtenerIndice(obtenerCeldaConMismasCoordenadas(celda));
+        long resultado = hash ^ obtenerClaveZobrist(indice, color);
+        byte buscado;
+        if (contarCapturasDeJugada(color, celda) > 0) {
+            buscado = obtenerCodigo(color == Color.BLANCO ? Color.NEGRO : Color.BLANCO);
+        } else if (contarSuicidioDeJugada(color, celda) > 0) {
+            buscado = obtenerCodigo(color);
+            resultado ^= obtenerClaveZobrist(indice, color);
+        } else {
+            return resultado;
+        }
+        for (int i = 0; i < NUMERO_SENTIDOS; i++) {
+            int vecino = almacen.obtenerVecino(indice, i);
+            if (obtenerContenido(vecino) == buscado) {
+                int raiz = buscarRaiz(vecino);
+                if (tieneUnaLibertad(almacen.obtenerRanura(raiz)) && !esRaizRepetida(indice, i, raiz)) {
+                    Color colorGrupo = COLORES[buscado - 1];
+                    int actual = raiz;
+                    do {
+                        resultado ^= obtenerClaveZobrist(actual, colorGrupo);
+                        actual = siguiente[almacen.obtenerRanura(actual)];
+                    } while (actual != raiz);
                 }
             }
         }
-        return true;
+        return resultado;
+    }
+
+    /**
+     * Comprueba si la raíz del grupo de un vecino de una celda ya es la de alguno de los
+     * vecinos anteriores, para no contar dos veces un grupo que toca la celda por dos lados.
+     *
+     * @param indice Índice de la celda.
+     * @param i      Ordinal del sentido del vecino.
+     * @param raiz   Raíz del grupo del vecino.
+     * @return <code>true</code> si algún vecino anterior pertenece al mismo grupo.
+     */
+    private boolean esRaizRepetida(int indice, int i, int raiz) {
+        byte codigo = obtenerContenido(almacen.obtenerVecino(indice, i));
+        for (int j = 0; j < i; j++) {
+            int vecino = almacen.obtenerVecino(indice, j);
+            if (obtenerContenido(vecino) == codigo && buscarRaiz(vecino) == raiz) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene el número de grupos de un color que tienen una única libertad.
+     *
+     * @param color Color de los grupos.
+     * @return Número de grupos en atari.
+     */
+    public int obtenerNumeroGruposEnAtari(Color color) {
+        return enAtari[color.ordinal()].obtenerTamaño();
+    }
+
+    /**
+     * Obtiene los grupos de un color que tienen una única libertad.
+     *
+     * @param color Color de los grupos.
+     * @return Lista de grupos en atari, en el mismo orden que
+     * {@link #obtenerLibertadDeGrupoEnAtari(Color, int)}.
+     */
+    public List<Grupo> obtenerGruposEnAtari(Color color) {
+        ConjuntoIndices conjunto = enAtari[color.ordinal()];
+        List<Grupo> grupos = new ArrayList<>(conjunto.obtenerTamaño());
+        for (int i = 0; i < conjunto.obtenerTamaño(); i++) {
+            grupos.add(construirGrupo(almacen.obtenerIndiceDeRanura(conjunto.obtener(i))));
+        }
+        return grupos;
+    }
+
+    /**
+     * Obtiene la única libertad de uno de los grupos en atari de un color.
+     *
+     * @param color Color de los grupos.
+     * @param i     Posición del grupo, menor que {@link #obtenerNumeroGruposEnAtari(Color)}.
+     * @return Celda vacía que es la última libertad del grupo.
+     */
+    public Celda obtenerLibertadDeGrupoEnAtari(Color color, int i) {
+        return obtenerLibertad(enAtari[color.ordinal()].obtener(i));
+    }
+
+    /**
+     * Comprueba si el grupo que ocupa una celda tiene una única libertad.
+     *
+     * @param celda Celda del grupo.
+     * @return <code>true</code> si está en atari, <code>false</code> si no
+     * o si la celda está vacía.
+     * @throws CoordenadasIncorrectasException en caso de que no exista celda con esas coordenadas.
+     */
+    public boolean estaEnAtari(Celda celda) throws CoordenadasIncorrectasException {
+        return obtenerUnicaLibertad(celda) != null;
+    }
+
+    /**
+     * Obtiene la única libertad del grupo que ocupa una celda.
+     *
+     * @param celda Celda del grupo.
+     * @return Celda de la única libertad, o <code>null</code> si el grupo no está
+     * en atari o la celda está vacía.
+     * @throws CoordenadasIncorrectasException en caso de que no exista celda con esas coordenadas.
+     */
+    public Celda obtenerUnicaLibertad(Celda celda) throws CoordenadasIncorrectasException {
+        int indice = obtenerIndice(obtenerCeldaConMismasCoordenadas(celda));
+        if (!esPiedra(obtenerContenido(indice))) {
+            return null;
+        }
+        int r = almacen.obtenerRanura(buscarRaiz(indice));
+        if (!enAtari[codigos[r] - 1].contiene(r)) {
+            return null;
+        }
+        return obtenerLibertad(r);
+    }
+
+    /**
+     * Obtiene la única libertad de un grupo en atari, que es la media de los índices
+     * de sus libertades.
+     *
+     * @param r Ranura de la raíz del grupo.
+     * @return Celda vacía que es la última libertad del grupo.
+     */
+    private Celda obtenerLibertad(int r) {
+        return obtenerCelda((int) (sumaLibertades[r] / libertades[r]));
+    }
+
+    /**
+     * Obtiene el hash Zobrist de la posición, que solo depende de las piedras
+     * colocadas y se actualiza al colocar y al capturar.
+     *
+     * @return Hash de 64 bits de la posición.
+     */
+    public long obtenerHash() {
+        return hash;
+    }
+
+    /**
+     * Obtiene el número de veces que se ha puesto o quitado una piedra en el tablero.
+     * A diferencia del hash, nunca vuelve a un valor anterior, ni siquiera al deshacer,
+     * así que sirve para saber si algo guardado a partir del tablero sigue siendo válido.
+     *
+     * @return Número de modificaciones.
+     */
+    public long obtenerNumeroModificaciones() {
+        return numeroModificaciones;
+    }
+
+    /**
+     * Calcula si este tablero es igual a otro o no. Compara primero los hash y las
+     * dimensiones, y solo si coinciden compara las piedras del otro tablero con una
+     * instantánea de este, que comparte las filas vacías y las no modificadas.
+     *
+     * @param tablero Tablero a comparar.
+     * @return <code>true</code> si son iguales, <code>false</code> en caso contrario.
+     */
+    public boolean esIgual(Tablero tablero) {
+        return hash == tablero.obtenerHash() && filas == tablero.obtenerNumeroFilas()
+                && columnas == tablero.obtenerNumeroColumnas() && tablero.esIgual(obtenerInstantanea());
     }
 }
@@ -0,0 +1,56 @@
+package juego.modelo;
+
+/**
+ * Tablero disperso para tableros personalizados muy grandes en los que casi todas las
+ * celdas están vacías. Usa las mismas reglas que {@link Tablero} sobre un
+ * {@link AlmacenDisperso}, que solo da ranura a las posiciones ocupadas, así que la
+ * memoria y el coste de cada jugada dependen de las piedras y no del área. Las
+ * instantáneas solo guardan las piedras de cada fila y comparten una única fila
+ * vacía entre todas las filas sin piedras.
+ * <p>
+ * Las celdas vacías no se guardan y se crean al consultarlas, así que una celda vacía
+ * obtenida antes de colocar en ella no cambia al hacerlo y debe volver a pedirse al tablero.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+public class TableroDisperso extends Tablero {
+
+    /**
+     * Constructor, crea un tablero vacío sin reservar nada por celda.
+     *
+     * @param filas    número de filas
+     * @param columnas número columnas
+     */
+    public TableroDisperso(int filas, int columnas) {
+        super(new AlmacenDisperso(filas, columnas));
+    }
+
+    /**
+     * Constructor de copia.
+     *
+     * @param original Tablero a copiar.
+     */
+    private TableroDisperso(TableroDisperso original) {
+        super(original);
+    }
+
+    /**
+     * Crea una copia del tablero actual.
+     *
+     * @return Copia.
+     */
+    public TableroDisperso generarCopia() {
+        return new TableroDisperso(this);
+    }
+
+    /**
+     * Información del objeto en String.
+     *
+     * @return String del objeto.
+     */
+    public String toString() {
+        return "TableroDisperso{ tamaño=(" + obtenerNumeroFilas() + "x" + obtenerNumeroColumnas() + "), piedrasBlancas=" +
+                obtenerNumeroPiedras(Color.BLANCO) + ", piedrasNegras=" + obtenerNumeroPiedras(Color.NEGRO) + " }";
+    }
+}
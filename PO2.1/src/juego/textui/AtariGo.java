@@ -31,6 +31,12 @@ public class AtariGo {
 	/** Valor indefinido. */
 	private static final int INDEFINIDO = -9999;
 
+	/** Orden para deshacer la última jugada. */
+	private static final String ORDEN_DESHACER = "DESHACER";
+
+	/** Orden para rehacer la última jugada deshecha. */
+	private static final String ORDEN_REHACER = "REHACER";
+
 	/** Logger. */
 	private static final Logger logger = LoggerFactory.getLogger(AtariGo.class);
 
@@ -55,8 +61,10 @@ public class AtariGo {
 			while (!arbitro.estaAcabado()) {
 				mostrarTablero(arbitro.obtenerTablero());
 				mostrarPrompt();
-				Celda celda = introducirCelda(new Scanner(System.in), arbitro.obtenerTablero());
-				realizarJugadaSiEsValida(celda);
+				String entrada = introducirEntrada(new Scanner(System.in));
+				if (!realizarOrdenSiExiste(entrada)) {
+					realizarJugadaSiEsValida(ConversorJugada.convertir(entrada, arbitro.obtenerTablero()));
+				}
 				mostrarInformeCapturas(arbitro.obtenerTablero());
 			}
 			mostrarResultadoFinalPartida(arbitro);
@@ -93,16 +101,36 @@ public class AtariGo {
 	}
 
 	/**
-	 * Lee la entrada del usuario traduciéndola a la celda correspondiente.
+	 * Realiza la orden de deshacer o rehacer si la entrada es una de ellas,
+	 * mostrando un error si no hay jugada que deshacer o rehacer.
+	 * 
+	 * @param entrada entrada del usuario en mayúsculas
+	 * @return true si la entrada era una orden, false si es una jugada
+	 */
+	private static boolean realizarOrdenSiExiste(String entrada) {
+		if (entrada.equals(ORDEN_DESHACER)) {
+			if (!arbitro.deshacerJugada()) {
+				System.err.print("No hay ninguna jugada que deshacer.");
+			}
+			return true;
+		}
+		if (entrada.equals(ORDEN_REHACER)) {
+			if (!arbitro.rehacerJugada()) {
+				System.err.print("No hay ninguna jugada deshecha que rehacer.");
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Lee la entrada del usuario en mayúsculas.
 	 * 
 	 * @param scanner scanner
-	 * @param tablero tablero
-	 * @return celda correspondiente o null en caso de no existir equivalencia
+	 * @return jugada u orden introducida
 	 */
-	private static Celda introducirCelda(Scanner scanner, Tablero tablero) {
-		String entrada;
-		entrada = scanner.next().toUpperCase();
-		return ConversorJugada.convertir(entrada, tablero);
+	private static String introducirEntrada(Scanner scanner) {
+		return scanner.next().toUpperCase();
 	}
 
 	/**
@@ -123,7 +151,7 @@ public class AtariGo {
 				arbitro.obtenerJugadorConTurno().obtenerNombre(),
 				arbitro.obtenerJugadorConTurno().obtenerColor().toChar(),
 				arbitro.obtenerJugadorConTurno().obtenerColor());
-		System.out.print("Introduce jugada: ");
+		System.out.print("Introduce jugada (o " + ORDEN_DESHACER + " / " + ORDEN_REHACER + "): ");
 	}
 
 	/**
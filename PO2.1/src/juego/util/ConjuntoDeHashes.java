@@ -0,0 +1,51 @@
+package juego.util;
+
+/**
+ * Conjunto de valores de 64 bits, guardados como claves de una {@link TablaDeDispersion}
+ * sin crear un objeto por elemento.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+public class ConjuntoDeHashes {
+    private final TablaDeDispersion tabla = new TablaDeDispersion();
+
+    /**
+     * Añade un valor al conjunto.
+     *
+     * @param valor Valor a añadir.
+     * @return <code>true</code> si no estaba, <code>false</code> si ya estaba.
+     */
+    public boolean añadir(long valor) {
+        return tabla.poner(valor, 0);
+    }
+
+    /**
+     * Comprueba si un valor pertenece al conjunto.
+     *
+     * @param valor Valor a comprobar.
+     * @return <code>true</code> si pertenece, <code>false</code> en caso contrario.
+     */
+    public boolean contiene(long valor) {
+        return tabla.contiene(valor);
+    }
+
+    /**
+     * Quita un valor del conjunto si estaba.
+     *
+     * @param valor Valor a quitar.
+     * @return <code>true</code> si estaba, <code>false</code> en caso contrario.
+     */
+    public boolean quitar(long valor) {
+        return tabla.quitar(valor);
+    }
+
+    /**
+     * Obtiene el número de valores del conjunto.
+     *
+     * @return Tamaño del conjunto.
+     */
+    public int obtenerTamaño() {
+        return tabla.obtenerTamaño();
+    }
+}
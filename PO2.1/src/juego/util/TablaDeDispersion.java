@@ -0,0 +1,186 @@
+package juego.util;
+
+/**
+ * Tabla de dispersión de claves de 64 bits a enteros, con direccionamiento abierto
+ * y sondeo lineal. Guarda claves y valores en dos vectores paralelos, sin crear
+ * un objeto por elemento, y duplica su capacidad cuando se llena hasta la mitad.
+ * Al quitar una clave desplaza hacia atrás las siguientes, de modo que no quedan
+ * marcas de borrado que alarguen las búsquedas.
+ *
+ * @author <A HREF="mailto:rdg1003@alu.ubu.es">Rodrigo Díaz</A>
+ * @version 2.1
+ */
+public class TablaDeDispersion {
+    /**
+     * Valor devuelto por {@link #obtener(long)} cuando la clave no está en la tabla.
+     */
+    public static final int AUSENTE = -1;
+
+    private static final int CAPACIDAD_INICIAL = 64;
+    private static final long VACIO = 0L;
+
+    private long[] claves = new long[CAPACIDAD_INICIAL];
+    private int[] valores = new int[CAPACIDAD_INICIAL];
+    private int tamaño = 0;
+    private boolean contieneVacio = false;
+    private int valorVacio = AUSENTE;
+
+    /**
+     * Obtiene el valor asociado a una clave.
+     *
+     * @param clave Clave a buscar.
+     * @return Valor asociado, o {@link #AUSENTE} si la clave no está en la tabla.
+     */
+    public int obtener(long clave) {
+        if (clave == VACIO) {
+            return contieneVacio ? valorVacio : AUSENTE;
+        }
+        int posicion = buscarPosicion(claves, clave);
+        return claves[posicion] == clave ? valores[posicion] : AUSENTE;
+    }
+
+    /**
+     * Comprueba si una clave está en la tabla.
+     *
+     * @param clave Clave a comprobar.
+     * @return <code>true</code> si está, <code>false</code> en caso contrario.
+     */
+    public boolean contiene(long clave) {
+        if (clave == VACIO) {
+            return contieneVacio;
+        }
+        return claves[buscarPosicion(claves, clave)] == clave;
+    }
+
+    /**
+     * Asocia un valor a una clave, sustituyendo el anterior si lo había.
+     *
+     * @param clave Clave.
+     * @param valor Valor a asociar.
+     * @return <code>true</code> si la clave no estaba, <code>false</code> si ya estaba.
+     */
+    public boolean poner(long clave, int valor) {
+        if (clave == VACIO) {
+            boolean nueva = !contieneVacio;
+            contieneVacio = true;
+            valorVacio = valor;
+            return nueva;
+        }
+        if ((tamaño + 1) * 2 > claves.length) {
+            redimensionar(claves.length * 2);
+        }
+        int posicion = buscarPosicion(claves, clave);
+        boolean nueva = claves[posicion] != clave;
+        if (nueva) {
+            claves[posicion] = clave;
+            tamaño++;
+        }
+        valores[posicion] = valor;
+        return nueva;
+    }
+
+    /**
+     * Quita una clave de la tabla si estaba, desplazando hacia atrás las claves
+     * siguientes para que ninguna búsqueda se corte en el hueco.
+     *
+     * @param clave Clave a quitar.
+     * @return <code>true</code> si estaba, <code>false</code> en caso contrario.
+     */
+    public boolean quitar(long clave) {
+        if (clave == VACIO) {
+            boolean estaba = contieneVacio;
+            contieneVacio = false;
+            return estaba;
+        }
+        int mascara = claves.length - 1;
+        int hueco = buscarPosicion(claves, clave);
+        if (claves[hueco] != clave) {
+            return false;
+        }
+        tamaño--;
+        int posicion = hueco;
+        while (true) {
+            posicion = (posicion + 1) & mascara;
+            if (claves[posicion] == VACIO) {
+                break;
+            }
+            int inicial = mezclar(claves[posicion]) & mascara;
+            if (((posicion - inicial) & mascara) >= ((posicion - hueco) & mascara)) {
+                claves[hueco] = claves[posicion];
+                valores[hueco] = valores[posicion];
+                hueco = posicion;
+            }
+        }
+        claves[hueco] = VACIO;
+        return true;
+    }
+
+    /**
+     * Obtiene el número de claves de la tabla.
+     *
+     * @return Tamaño de la tabla.
+     */
+    public int obtenerTamaño() {
+        return tamaño + (contieneVacio ? 1 : 0);
+    }
+
+    /**
+     * Sustituye el contenido de la tabla por el de otra.
+     *
+     * @param otra Tabla a copiar.
+     */
+    public void copiarDe(TablaDeDispersion otra) {
+        claves = otra.claves.clone();
+        valores = otra.valores.clone();
+        tamaño = otra.tamaño;
+        contieneVacio = otra.contieneVacio;
+        valorVacio = otra.valorVacio;
+    }
+
+    /**
+     * Busca la posición de una clave en una tabla, o la del primer hueco donde iría.
+     *
+     * @param claves Tabla de claves, con al menos un hueco.
+     * @param clave  Clave a buscar, distinta de {@link #VACIO}.
+     * @return Posición de la clave o del hueco.
+     */
+    private static int buscarPosicion(long[] claves, long clave) {
+        int mascara = claves.length - 1;
+        int posicion = mezclar(clave) & mascara;
+        while (claves[posicion] != VACIO && claves[posicion] != clave) {
+            posicion = (posicion + 1) & mascara;
+        }
+        return posicion;
+    }
+
+    /**
+     * Mezcla los bits de una clave para repartirla en la tabla aunque sus bits bajos
+     * se parezcan, como ocurre con los índices consecutivos de una misma fila.
+     *
+     * @param clave Clave a mezclar.
+     * @return Posición inicial de búsqueda antes de aplicar la máscara.
+     */
+    private static int mezclar(long clave) {
+        long mezcla = clave * 0x9E3779B97F4A7C15L;
+        return (int) (mezcla ^ (mezcla >>> 32));
+    }
+
+    /**
+     * Cambia la capacidad de la tabla volviendo a colocar todas las claves.
+     *
+     * @param capacidad Nueva capacidad, potencia de dos.
+     */
+    private void redimensionar(int capacidad) {
+        long[] nuevasClaves = new long[capacidad];
+        int[] nuevosValores = new int[capacidad];
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != VACIO) {
+                int posicion = buscarPosicion(nuevasClaves, claves[i]);
+                nuevasClaves[posicion] = claves[i];
+                nuevosValores[posicion] = valores[i];
+            }
+        }
+        claves = nuevasClaves;
+        valores = nuevosValores;
+    }
+}
@@ -1,12 +1,25 @@
 package juego.control;
 
 import juego.modelo.Celda;
+import juego.modelo.Color;
+import juego.modelo.Grupo;
+import juego.modelo.Instantanea;
+import juego.modelo.RegistroJugada;
 import juego.modelo.Tablero;
+import juego.modelo.TableroDisperso;
 import juego.textui.JuegoTest;
 import juego.util.CoordenadasIncorrectasException;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -37,6 +50,65 @@ class ArbitroAtariGoAvanzadoTest {
         assertFalse(arbitro.estaAcabado());
     }
 
+    @Test
+    void jugarSecuencia() {
+        ArbitroAtariGoAvanzado arbitro = new ArbitroAtariGoAvanzado(new Tablero(9,9), 2);
+        arbitro.registrarJugadoresEnOrden("Alice");
+        arbitro.registrarJugadoresEnOrden("Bob");
+        assertEquals(6, arbitro.jugarSecuencia(new int[]{1, 2, 9, 10, 27, 18, 0, 11}));
+        assertFalse(arbitro.estaAcabado());
+        assertEquals(-1, arbitro.jugarSecuencia(new int[]{11, 0}));
+        assertTrue(arbitro.estaAcabado());
+        assertEquals("Bob", arbitro.obtenerGanador().obtenerNombre());
+        assertEquals(0, arbitro.jugarSecuencia(new int[]{80}));
+        assertTrue(jugada1(2).obtenerTablero().esIgual(arbitro.obtenerTablero()));
+
+        ArbitroAtariGoAvanzado seguido = new ArbitroAtariGoAvanzado(new Tablero(9,9), 2);
+        seguido.registrarJugadoresEnOrden("Alice");
+        seguido.registrarJugadoresEnOrden("Bob");
+        assertEquals(8, seguido.jugarSecuencia(new int[]{1, 2, 9, 10, 27, 18, 11, 0, 80, 40}));
+        assertTrue(seguido.estaAcabado());
+        assertTrue(seguido.obtenerTablero().esIgual(arbitro.obtenerTablero()));
+    }
+
+    @Test
+    void jugarSecuenciaAleatoria() {
+        Random aleatorio = new Random(41);
+        for (int partida = 0; partida < 10; partida++) {
+            ArbitroAtariGo arbitro = new ArbitroAtariGoSuperko(new Tablero(5, 5), 4);
+            ArbitroAtariGo repeticion = new ArbitroAtariGoSuperko(new Tablero(5, 5), 4);
+            for (ArbitroAtariGo otro : new ArbitroAtariGo[]{arbitro, repeticion}) {
+                otro.registrarJugadoresEnOrden("Alice");
+                otro.registrarJugadoresEnOrden("Bob");
+            }
+            List<Integer> jugadas = new ArrayList<>();
+            while (!arbitro.estaAcabado()) {
+                BitSet legales = arbitro.obtenerMovimientosLegales();
+                if (legales.isEmpty()) {
+                    break;
+                }
+                int elegido = elegirMovimiento(legales, aleatorio);
+                arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(elegido / 5, elegido % 5));
+                jugadas.add(elegido);
+            }
+            int[] secuencia = new int[jugadas.size() + 1];
+            for (int i = 0; i < jugadas.size(); i++) {
+                secuencia[i] = jugadas.get(i);
+            }
+            secuencia[jugadas.size()] = jugadas.get(0);
+            assertEquals(jugadas.size(), repeticion.jugarSecuencia(secuencia));
+            assertTrue(arbitro.obtenerTablero().esIgual(repeticion.obtenerTablero()));
+            assertEquals(arbitro.obtenerGanador() == null, repeticion.obtenerGanador() == null);
+            if (arbitro.obtenerGanador() != null) {
+                assertEquals(arbitro.obtenerGanador().obtenerNombre(), repeticion.obtenerGanador().obtenerNombre());
+            }
+            for (Color color : Color.values()) {
+                assertEquals(arbitro.obtenerTablero().obtenerNumeroPiedrasCapturadas(color),
+                        repeticion.obtenerTablero().obtenerNumeroPiedrasCapturadas(color));
+            }
+        }
+    }
+
     @Test
     void ko() {
         ArbitroAtariGoAvanzado arbitro = new ArbitroAtariGoAvanzado(new Tablero(9, 9), 3);
@@ -57,6 +129,253 @@ class ArbitroAtariGoAvanzadoTest {
         assertJugada(arbitro,3,4, false);
     }
 
+    @Test
+    void deshacerKo() {
+        ArbitroAtariGoAvanzado arbitro = new ArbitroAtariGoAvanzado(new Tablero(9, 9), 3);
+        arbitro.registrarJugadoresEnOrden("Alice");
+        arbitro.registrarJugadoresEnOrden("Bob");
+        assertFalse(arbitro.deshacerJugada());
+        int[][] jugadas = {{3, 3}, {3, 6}, {4, 4}, {4, 5}, {2, 4}, {2, 5}, {3, 5}, {3, 4}};
+        for (int[] jugada : jugadas) {
+            assertJugada(arbitro, jugada[0], jugada[1]);
+        }
+        assertJugada(arbitro, 3, 5, false);
+        assertTrue(arbitro.deshacerJugada());
+        assertEquals("Bob", arbitro.obtenerJugadorConTurno().obtenerNombre());
+        assertEquals(0, arbitro.obtenerTablero().obtenerNumeroPiedrasCapturadas(Color.NEGRO));
+        assertEquals(Color.NEGRO, arbitro.obtenerTablero().obtenerCelda(3, 5).obtenerColorDePiedra());
+        assertTrue(arbitro.esMovimientoLegal(arbitro.obtenerTablero().obtenerCelda(3, 4)));
+        assertTrue(arbitro.rehacerJugada());
+        assertFalse(arbitro.rehacerJugada());
+        assertEquals(1, arbitro.obtenerTablero().obtenerNumeroPiedrasCapturadas(Color.NEGRO));
+        assertJugada(arbitro, 3, 5, false);
+        assertTrue(arbitro.deshacerJugada());
+        assertJugada(arbitro, 8, 8);
+        assertFalse(arbitro.rehacerJugada());
+    }
+
+    @Test
+    void deshacerAtravesDeKo() {
+        ArbitroAtariGoAvanzado arbitro = new ArbitroAtariGoAvanzado(new Tablero(9, 9), 3);
+        arbitro.registrarJugadoresEnOrden("Alice");
+        arbitro.registrarJugadoresEnOrden("Bob");
+        int[][] jugadas = {{3, 3}, {3, 6}, {4, 4}, {4, 5}, {2, 4}, {2, 5}, {3, 5}, {3, 4}, {5, 4}, {5, 5}};
+        for (int[] jugada : jugadas) {
+            assertJugada(arbitro, jugada[0], jugada[1]);
+        }
+        Celda retoma = arbitro.obtenerTablero().obtenerCelda(3, 5);
+        assertTrue(arbitro.esMovimientoLegal(retoma));
+        assertTrue(arbitro.deshacerJugada());
+        assertTrue(arbitro.deshacerJugada());
+        assertEquals("Alice", arbitro.obtenerJugadorConTurno().obtenerNombre());
+        assertFalse(arbitro.esMovimientoLegal(retoma));
+        assertTrue(arbitro.deshacerJugada());
+        assertEquals("Bob", arbitro.obtenerJugadorConTurno().obtenerNombre());
+        assertTrue(arbitro.esMovimientoLegal(arbitro.obtenerTablero().obtenerCelda(3, 4)));
+        assertTrue(arbitro.rehacerJugada());
+        assertFalse(arbitro.esMovimientoLegal(retoma));
+        assertTrue(arbitro.rehacerJugada());
+        assertTrue(arbitro.rehacerJugada());
+        assertJugada(arbitro, 3, 5);
+        assertJugada(arbitro, 3, 4, false);
+        assertTrue(arbitro.deshacerJugada());
+        assertEquals(1, arbitro.obtenerTablero().obtenerNumeroPiedrasCapturadas(Color.NEGRO));
+        assertEquals(0, arbitro.obtenerTablero().obtenerNumeroPiedrasCapturadas(Color.BLANCO));
+        assertTrue(arbitro.esMovimientoLegal(retoma));
+    }
+
+    @Test
+    void deshacerYRehacer() {
+        Random aleatorio = new Random(29);
+        for (int partida = 0; partida < 20; partida++) {
+            ArbitroAtariGo arbitro = partida % 2 == 0 ?
+                    new ArbitroAtariGoAvanzado(new Tablero(5, 5), 3) : new ArbitroAtariGoSuperko(new Tablero(5, 5), 3);
+            arbitro.registrarJugadoresEnOrden("Alice");
+            arbitro.registrarJugadoresEnOrden("Bob");
+            List<Instantanea> posiciones = new ArrayList<>();
+            List<BitSet> legales = new ArrayList<>();
+            posiciones.add(arbitro.obtenerTablero().obtenerInstantanea());
+            legales.add(arbitro.obtenerMovimientosLegales());
+            while (!arbitro.estaAcabado() && !legales.get(legales.size() - 1).isEmpty()) {
+                BitSet movimientos = legales.get(legales.size() - 1);
+                int elegido = elegirMovimiento(movimientos, aleatorio);
+                arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(elegido / 5, elegido % 5));
+                posiciones.add(arbitro.obtenerTablero().obtenerInstantanea());
+                legales.add(arbitro.obtenerMovimientosLegales());
+            }
+            boolean acabado = arbitro.estaAcabado();
+            for (int numero = posiciones.size() - 2; numero >= 0; numero--) {
+                assertTrue(arbitro.deshacerJugada());
+                assertEstado(arbitro, posiciones.get(numero), legales.get(numero), numero);
+                assertFalse(arbitro.estaAcabado());
+            }
+            assertFalse(arbitro.deshacerJugada());
+            for (int numero = 1; numero < posiciones.size(); numero++) {
+                assertTrue(arbitro.rehacerJugada());
+                assertEstado(arbitro, posiciones.get(numero), legales.get(numero), numero);
+            }
+            assertFalse(arbitro.rehacerJugada());
+            assertEquals(acabado, arbitro.estaAcabado());
+        }
+    }
+
+    @Test
+    void deshacerTrasCambiarTurno() {
+        ArbitroAtariGo arbitro = new ArbitroAtariGoAvanzado(new Tablero(5, 5), 3);
+        arbitro.registrarJugadoresEnOrden("Alice");
+        arbitro.registrarJugadoresEnOrden("Bob");
+        arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(0, 0));
+        arbitro.cambiarTurno();
+        assertEquals("Alice", arbitro.obtenerJugadorConTurno().obtenerNombre());
+        assertTrue(arbitro.deshacerJugada());
+        assertEquals("Alice", arbitro.obtenerJugadorConTurno().obtenerNombre());
+        assertTrue(arbitro.obtenerTablero().obtenerCelda(0, 0).estaVacia());
+        assertTrue(arbitro.rehacerJugada());
+        assertEquals(Color.NEGRO, arbitro.obtenerTablero().obtenerCelda(0, 0).obtenerColorDePiedra());
+        assertEquals("Bob", arbitro.obtenerJugadorConTurno().obtenerNombre());
+    }
+
+    @Test
+    void rehacerTrasCambiarTurno() {
+        ArbitroAtariGo arbitro = new ArbitroAtariGoAvanzado(new Tablero(2, 2), 3);
+        arbitro.registrarJugadoresEnOrden("Alice");
+        arbitro.registrarJugadoresEnOrden("Bob");
+        assertJugada(arbitro, 0, 1);
+        assertJugada(arbitro, 0, 0);
+        assertJugada(arbitro, 1, 1);
+        assertJugada(arbitro, 1, 0);
+        assertEquals(2, arbitro.obtenerTablero().obtenerNumeroPiedrasCapturadas(Color.NEGRO));
+        Instantanea posicion = arbitro.obtenerTablero().obtenerInstantanea();
+        assertTrue(arbitro.deshacerJugada());
+        assertEquals("Bob", arbitro.obtenerJugadorConTurno().obtenerNombre());
+        arbitro.cambiarTurno();
+        assertTrue(arbitro.rehacerJugada());
+        assertTrue(arbitro.obtenerTablero().esIgual(posicion));
+        assertEquals(2, arbitro.obtenerTablero().obtenerNumeroPiedrasCapturadas(Color.NEGRO));
+        assertEquals("Alice", arbitro.obtenerJugadorConTurno().obtenerNombre());
+    }
+
+    @Test
+    void deshacerConUnJugador() {
+        ArbitroAtariGo arbitro = new ArbitroAtariGoAvanzado(new Tablero(5, 5), 3);
+        arbitro.registrarJugadoresEnOrden("Alice");
+        arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(2, 2));
+        assertTrue(arbitro.deshacerJugada());
+        assertEquals("Alice", arbitro.obtenerJugadorConTurno().obtenerNombre());
+        assertTrue(arbitro.obtenerTablero().obtenerCelda(2, 2).estaVacia());
+        assertTrue(arbitro.rehacerJugada());
+        assertEquals(Color.NEGRO, arbitro.obtenerTablero().obtenerCelda(2, 2).obtenerColorDePiedra());
+    }
+
+    @Test
+    void obtenerMovimientosLegales() {
+        Random aleatorio = new Random(23);
+        for (int partida = 0; partida < 30; partida++) {
+            ArbitroAtariGo arbitro;
+            Tablero tablero = partida % 2 == 0 ? new Tablero(4, 4) : new TableroDisperso(4, 4);
+            if (partida % 3 == 0) {
+                arbitro = new ArbitroAtariGoBasico(tablero);
+            } else if (partida % 3 == 1) {
+                arbitro = new ArbitroAtariGoAvanzado(tablero, 6);
+            } else {
+                arbitro = new ArbitroAtariGoSuperko(tablero, 6);
+            }
+            arbitro.registrarJugadoresEnOrden("Alice");
+            arbitro.registrarJugadoresEnOrden("Bob");
+            while (!arbitro.estaAcabado()) {
+                BitSet legales = arbitro.obtenerMovimientosLegales();
+                for (int i = 0; i < 16; i++) {
+                    Celda celda = arbitro.obtenerTablero().obtenerCelda(i / 4, i % 4);
+                    assertEquals(arbitro.esMovimientoLegal(celda), legales.get(i));
+                    assertEquals(esMovimientoLegalJugando(arbitro, celda), legales.get(i));
+                }
+                if (legales.isEmpty()) {
+                    break;
+                }
+                int elegido = elegirMovimiento(legales, aleatorio);
+                arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(elegido / 4, elegido % 4));
+            }
+        }
+    }
+
+    @Test
+    void partidasConcurrentes() throws Exception {
+        long[] esperados = new long[64];
+        for (int partida = 0; partida < esperados.length; partida++) {
+            esperados[partida] = jugarPartidaAleatoria(partida);
+        }
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> resultados = new ArrayList<>();
+            for (int partida = 0; partida < esperados.length; partida++) {
+                final int semilla = partida;
+                resultados.add(hilos.submit(() -> jugarPartidaAleatoria(semilla)));
+            }
+            for (int partida = 0; partida < esperados.length; partida++) {
+                assertEquals(esperados[partida], resultados.get(partida).get().longValue());
+            }
+        } finally {
+            hilos.shutdown();
+        }
+    }
+
+    private long jugarPartidaAleatoria(int semilla) {
+        Random aleatorio = new Random(semilla);
+        ArbitroAtariGo arbitro = new ArbitroAtariGoSuperko(new Tablero(9, 9), 5);
+        arbitro.registrarJugadoresEnOrden("Alice");
+        arbitro.registrarJugadoresEnOrden("Bob");
+        while (!arbitro.estaAcabado()) {
+            BitSet legales = arbitro.obtenerMovimientosLegales();
+            if (legales.isEmpty()) {
+                break;
+            }
+            int elegido = elegirMovimiento(legales, aleatorio);
+            arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(elegido / 9, elegido % 9));
+            arbitro.obtenerTablero().obtenerGruposDelJugador(arbitro.obtenerJugadorConTurno());
+        }
+        long resultado = arbitro.obtenerTablero().obtenerHash();
+        for (Grupo grupo : arbitro.obtenerTablero().obtenerGruposDelJugador(arbitro.obtenerJugadorConTurno())) {
+            resultado = resultado * 31 + grupo.obtenerId();
+        }
+        return resultado;
+    }
+
+    static int elegirMovimiento(BitSet legales, Random aleatorio) {
+        int elegido = legales.nextSetBit(0);
+        for (int saltos = aleatorio.nextInt(legales.cardinality()); saltos > 0; saltos--) {
+            elegido = legales.nextSetBit(elegido + 1);
+        }
+        return elegido;
+    }
+
+    private void assertEstado(ArbitroAtariGo arbitro, Instantanea posicion, BitSet legales, int numero) {
+        assertTrue(arbitro.obtenerTablero().esIgual(posicion));
+        for (Color color : Color.values()) {
+            assertEquals(posicion.obtenerNumeroPiedrasCapturadas(color),
+                    arbitro.obtenerTablero().obtenerNumeroPiedrasCapturadas(color));
+        }
+        assertEquals(numero % 2 == 0 ? "Alice" : "Bob", arbitro.obtenerJugadorConTurno().obtenerNombre());
+        assertEquals(legales, arbitro.obtenerMovimientosLegales());
+    }
+
+    private static boolean esMovimientoLegalJugando(ArbitroAtariGo arbitro, Celda celda) {
+        if (!celda.estaVacia()) {
+            return false;
+        }
+        Tablero tablero = arbitro.obtenerTablero();
+        Color propio = arbitro.obtenerJugadorConTurno().obtenerColor();
+        Color rival = arbitro.obtenerJugadorSinTurno().obtenerColor();
+        int capturadasPropias = tablero.obtenerNumeroPiedrasCapturadas(propio);
+        int capturadasRivales = tablero.obtenerNumeroPiedrasCapturadas(rival);
+        RegistroJugada registro = tablero.aplicar(propio, celda);
+        boolean legal = (ReglasAtariGo.obtenerGanador(propio, tablero.obtenerNumeroPiedrasCapturadas(propio),
+                tablero.obtenerNumeroPiedrasCapturadas(rival), arbitro.obtenerCota()) == propio ||
+                tablero.obtenerNumeroPiedrasCapturadas(rival) > capturadasRivales ||
+                tablero.obtenerNumeroPiedrasCapturadas(propio) == capturadasPropias) &&
+                !arbitro.esKo(tablero.obtenerHash());
+        tablero.deshacer(registro);
+        return legal;
+    }
 
     private ArbitroAtariGoAvanzado jugada1(int cota) {
         ArbitroAtariGoAvanzado arbitro = new ArbitroAtariGoAvanzado(new Tablero(9,9), cota);
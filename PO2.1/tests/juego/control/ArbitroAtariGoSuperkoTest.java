@@ -0,0 +1,71 @@
+package juego.control;
+
+import juego.modelo.Celda;
+import juego.modelo.Tablero;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * [juego.control.ArbitroAtariGoSuperkoTest] Created by Roderick D. on 2018/01/20.
+ *
+ * @author Roderick D.
+ * rorik.me
+ * github.com/rorik
+ */
+class ArbitroAtariGoSuperkoTest {
+
+    @Test
+    void ko() {
+        ArbitroAtariGoSuperko arbitro = new ArbitroAtariGoSuperko(new Tablero(9, 9), 3);
+        arbitro.registrarJugadoresEnOrden("Alice");
+        arbitro.registrarJugadoresEnOrden("Bob");
+        assertJugada(arbitro, 3, 3, true);
+        assertJugada(arbitro, 3, 6, true);
+        assertJugada(arbitro, 4, 4, true);
+        assertJugada(arbitro, 4, 5, true);
+        assertJugada(arbitro, 2, 4, true);
+        assertJugada(arbitro, 2, 5, true);
+        assertJugada(arbitro, 3, 5, true);
+        assertJugada(arbitro, 3, 4, true);
+        assertJugada(arbitro, 3, 5, false);
+        assertFalse(arbitro.estaAcabado());
+    }
+
+    @Test
+    void superko() {
+        ArbitroAtariGoSuperko superko = new ArbitroAtariGoSuperko(new Tablero(3, 3), 3);
+        ArbitroAtariGoAvanzado avanzado = new ArbitroAtariGoAvanzado(new Tablero(3, 3), 3);
+        for (ArbitroAtariGo arbitro : new ArbitroAtariGo[]{superko, avanzado}) {
+            arbitro.registrarJugadoresEnOrden("Alice");
+            arbitro.registrarJugadoresEnOrden("Bob");
+            arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(0, 0));
+            arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(2, 2));
+        }
+        assertTrue(superko.esKo(new Tablero(3, 3).obtenerHash()));
+        assertFalse(avanzado.esKo(new Tablero(3, 3).obtenerHash()));
+    }
+
+    @Test
+    void deshacerSuperko() {
+        ArbitroAtariGoSuperko arbitro = new ArbitroAtariGoSuperko(new Tablero(3, 3), 3);
+        arbitro.registrarJugadoresEnOrden("Alice");
+        arbitro.registrarJugadoresEnOrden("Bob");
+        arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(0, 0));
+        long hash = arbitro.obtenerTablero().obtenerHash();
+        assertTrue(arbitro.esKo(hash));
+        assertTrue(arbitro.deshacerJugada());
+        assertFalse(arbitro.esKo(hash));
+        assertTrue(arbitro.esKo(new Tablero(3, 3).obtenerHash()));
+        assertJugada(arbitro, 0, 0, true);
+        assertTrue(arbitro.esKo(hash));
+    }
+
+    private void assertJugada(ArbitroAtariGo arbitro, int fila, int columna, boolean legal) {
+        Celda celda = arbitro.obtenerTablero().obtenerCelda(fila, columna);
+        assertEquals(legal, arbitro.esMovimientoLegal(celda));
+        if (legal) {
+            arbitro.jugar(celda);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package juego.control;
 
 import juego.modelo.Color;
 import juego.modelo.Piedra;
+import juego.modelo.RegistroJugada;
 import juego.modelo.Tablero;
 import org.junit.jupiter.api.Test;
 
@@ -73,6 +74,41 @@ class ArbitroBasicoTest {
         assertEquals("a", arbitro.obtenerGanador().obtenerNombre());
     }
 
+    @Test
+    void estaAcabadoTrasDeshacer() {
+        Tablero tablero = new Tablero(3,2);
+        ArbitroAtariGo arbitro = new ArbitroAtariGoBasico(tablero);
+        arbitro.registrarJugadoresEnOrden("a");
+        arbitro.registrarJugadoresEnOrden("b");
+        tablero.colocar(Color.BLANCO, tablero.obtenerCelda(0,0));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(1,0));
+        assertFalse(arbitro.estaAcabado());
+        RegistroJugada registro = tablero.aplicar(Color.NEGRO, tablero.obtenerCelda(0,1));
+        assertTrue(arbitro.estaAcabado());
+        assertEquals("a", arbitro.obtenerGanador().obtenerNombre());
+        tablero.deshacer(registro);
+        assertFalse(arbitro.estaAcabado());
+        assertNull(arbitro.obtenerGanador());
+    }
+
+    @Test
+    void deshacerJugada() {
+        ArbitroAtariGo arbitro = new ArbitroAtariGoBasico(new Tablero(3,2));
+        arbitro.registrarJugadoresEnOrden("a");
+        arbitro.registrarJugadoresEnOrden("b");
+        arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(1,0));
+        arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(0,0));
+        arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(0,1));
+        assertTrue(arbitro.estaAcabado());
+        assertTrue(arbitro.deshacerJugada());
+        assertFalse(arbitro.estaAcabado());
+        assertEquals("a", arbitro.obtenerJugadorConTurno().obtenerNombre());
+        assertEquals(Color.BLANCO, arbitro.obtenerTablero().obtenerCelda(0,0).obtenerColorDePiedra());
+        assertTrue(arbitro.rehacerJugada());
+        assertTrue(arbitro.estaAcabado());
+        assertEquals("a", arbitro.obtenerGanador().obtenerNombre());
+    }
+
     @Test
     void jugar() {
         ArbitroAtariGo arbitro = new ArbitroAtariGoBasico(new Tablero(2,2));
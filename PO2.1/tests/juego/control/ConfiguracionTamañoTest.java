@@ -1,5 +1,6 @@
 package juego.control;
 
+import juego.modelo.TableroDisperso;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,4 +29,13 @@ class ConfiguracionTamañoTest {
         assertEquals(" 9, 13, 19.", ConfiguracionAtariGo.generarAyuda());
     }
 
+    @Test
+    void generarTablero() {
+        assertTrue(ConfiguracionAtariGo.esTamañoPersonalizadoValido(1000));
+        assertFalse(ConfiguracionAtariGo.esTamañoPersonalizadoValido(1001));
+        assertFalse(ConfiguracionAtariGo.generarTablero(19, 19) instanceof TableroDisperso);
+        assertTrue(ConfiguracionAtariGo.generarTablero(1000, 1000) instanceof TableroDisperso);
+        assertEquals(1000, ConfiguracionAtariGo.generarTablero(1000, 1000).obtenerNumeroColumnas());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package juego.control;
+
+import juego.modelo.Color;
+import juego.modelo.Instantanea;
+import juego.modelo.Tablero;
+import juego.util.ConjuntoDeHashes;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * [juego.control.ReglasAtariGoTest] Created by Roderick D. on 2018/01/20.
+ *
+ * @author Roderick D.
+ * rorik.me
+ * github.com/rorik
+ */
+class ReglasAtariGoTest {
+
+    @Test
+    void jugar() {
+        Tablero tablero = new Tablero(3, 3);
+        tablero.colocar(Color.BLANCO, tablero.obtenerCelda(0, 0));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(0, 1));
+        Instantanea posicion = tablero.obtenerInstantanea();
+        ResultadoJugada ocupada = ReglasAtariGo.jugar(posicion, Color.NEGRO, 0, 0, 1);
+        assertFalse(ocupada.esLegal());
+        assertSame(posicion, ocupada.obtenerPosicion());
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(2, 1));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(1, 2));
+        assertFalse(ReglasAtariGo.jugar(tablero.obtenerInstantanea(), Color.BLANCO, 2, 2, 1).esLegal());
+        assertTrue(ReglasAtariGo.jugar(tablero.obtenerInstantanea(), Color.BLANCO, 1, 1, 1).esLegal());
+        ResultadoJugada captura = ReglasAtariGo.jugar(posicion, Color.NEGRO, 1, 0, 1);
+        assertTrue(captura.esLegal());
+        assertEquals(1, captura.obtenerNumeroPiedrasCapturadas());
+        assertEquals(Color.NEGRO, captura.obtenerGanador());
+        assertTrue(captura.obtenerPosicion().estaVacia(0, 0));
+        assertEquals(Color.BLANCO, posicion.obtenerColor(0, 0));
+        ConjuntoDeHashes prohibidas = new ConjuntoDeHashes();
+        prohibidas.añadir(captura.obtenerPosicion().obtenerHash());
+        assertFalse(ReglasAtariGo.jugar(posicion, Color.NEGRO, 1, 0, 1, prohibidas).esLegal());
+        assertNull(ReglasAtariGo.obtenerGanador(posicion, Color.BLANCO, 1));
+    }
+
+    @Test
+    void igualQueArbitro() {
+        Random aleatorio = new Random(23);
+        for (int partida = 0; partida < 30; partida++) {
+            ArbitroAtariGo arbitro;
+            int cota;
+            if (partida % 3 == 0) {
+                arbitro = new ArbitroAtariGoBasico(new Tablero(5, 5));
+                cota = 1;
+            } else if (partida % 3 == 1) {
+                arbitro = new ArbitroAtariGoAvanzado(new Tablero(5, 5), 3);
+                cota = 3;
+            } else {
+                arbitro = new ArbitroAtariGoSuperko(new Tablero(5, 5), 3);
+                cota = 3;
+            }
+            arbitro.registrarJugadoresEnOrden("Alice");
+            arbitro.registrarJugadoresEnOrden("Bob");
+            List<Long> hashes = new ArrayList<>();
+            hashes.add(arbitro.obtenerTablero().obtenerHash());
+            int capturadasUltima = 0;
+            while (!arbitro.estaAcabado()) {
+                ConjuntoDeHashes prohibidas = new ConjuntoDeHashes();
+                if (partida % 3 == 1 && hashes.size() > 2 && capturadasUltima > 0) {
+                    prohibidas.añadir(hashes.get(hashes.size() - 2));
+                } else if (partida % 3 == 2) {
+                    for (long hash : hashes) {
+                        prohibidas.añadir(hash);
+                    }
+                }
+                Instantanea posicion = arbitro.obtenerTablero().obtenerInstantanea();
+                Color color = arbitro.obtenerJugadorConTurno().obtenerColor();
+                List<ResultadoJugada> legales = new ArrayList<>();
+                List<Integer> celdas = new ArrayList<>();
+                for (int i = 0; i < 25; i++) {
+                    ResultadoJugada resultado = ReglasAtariGo.jugar(posicion, color, i / 5, i % 5, cota, prohibidas);
+                    assertEquals(arbitro.esMovimientoLegal(arbitro.obtenerTablero().obtenerCelda(i / 5, i % 5)),
+                            resultado.esLegal());
+                    if (resultado.esLegal()) {
+                        legales.add(resultado);
+                        celdas.add(i);
+                    }
+                }
+                assertEquals(posicion, arbitro.obtenerTablero().obtenerInstantanea());
+                if (legales.isEmpty()) {
+                    break;
+                }
+                int elegida = aleatorio.nextInt(legales.size());
+                ResultadoJugada resultado = legales.get(elegida);
+                arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(celdas.get(elegida) / 5, celdas.get(elegida) % 5));
+                hashes.add(arbitro.obtenerTablero().obtenerHash());
+                capturadasUltima = resultado.obtenerNumeroPiedrasCapturadas();
+                assertTrue(arbitro.obtenerTablero().esIgual(resultado.obtenerPosicion()));
+                Color ganador = arbitro.obtenerGanador() == null ? null : arbitro.obtenerGanador().obtenerColor();
+                assertEquals(ganador, resultado.obtenerGanador());
+            }
+        }
+    }
+
+    @Test
+    void evaluarEnParalelo() throws Exception {
+        Tablero tablero = new Tablero(9, 9);
+        Random aleatorio = new Random(5);
+        for (int jugada = 0; jugada < 40; jugada++) {
+            int fila = aleatorio.nextInt(9);
+            int columna = aleatorio.nextInt(9);
+            if (tablero.obtenerCelda(fila, columna).estaVacia()) {
+                tablero.colocar(Color.values()[jugada % 2], tablero.obtenerCelda(fila, columna));
+            }
+        }
+        Instantanea posicion = tablero.obtenerInstantanea();
+        long[] esperados = evaluarTodas(posicion);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<long[]>> resultados = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                resultados.add(hilos.submit(() -> evaluarTodas(posicion)));
+            }
+            for (Future<long[]> resultado : resultados) {
+                assertArrayEquals(esperados, resultado.get());
+            }
+        } finally {
+            hilos.shutdown();
+        }
+    }
+
+    /**
+     * Evalúa las jugadas negras en todas las posiciones de una instantánea.
+     *
+     * @param posicion Posición a evaluar.
+     * @return Hash resultante de cada jugada, 0 si no es legal.
+     */
+    private static long[] evaluarTodas(Instantanea posicion) {
+        int columnas = posicion.obtenerNumeroColumnas();
+        long[] hashes = new long[posicion.obtenerNumeroFilas() * columnas];
+        for (int i = 0; i < hashes.length; i++) {
+            ResultadoJugada resultado = ReglasAtariGo.jugar(posicion, Color.NEGRO, i / columnas, i % columnas, 2);
+            hashes[i] = resultado.esLegal() ? resultado.obtenerPosicion().obtenerHash() : 0;
+        }
+        return hashes;
+    }
+}
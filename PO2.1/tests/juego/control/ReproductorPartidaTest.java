@@ -0,0 +1,118 @@
+package juego.control;
+
+import juego.modelo.Color;
+import juego.modelo.Instantanea;
+import juego.modelo.Tablero;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * [juego.control.ReproductorPartidaTest] Created by Roderick D. on 2018/01/20.
+ *
+ * @author Roderick D.
+ * rorik.me
+ * github.com/rorik
+ */
+class ReproductorPartidaTest {
+
+    @Test
+    void irAJugada() {
+        Random aleatorio = new Random(17);
+        ArbitroAtariGo arbitro = nuevoArbitro();
+        List<Instantanea> posiciones = new ArrayList<>();
+        List<Integer> jugadas = new ArrayList<>();
+        posiciones.add(arbitro.obtenerTablero().obtenerInstantanea());
+        while (!arbitro.estaAcabado()) {
+            BitSet legales = arbitro.obtenerMovimientosLegales();
+            if (legales.isEmpty()) {
+                break;
+            }
+            int elegido = ArbitroAtariGoAvanzadoTest.elegirMovimiento(legales, aleatorio);
+            arbitro.jugar(arbitro.obtenerTablero().obtenerCelda(elegido / 7, elegido % 7));
+            jugadas.add(elegido);
+            posiciones.add(arbitro.obtenerTablero().obtenerInstantanea());
+        }
+        int[] secuencia = new int[jugadas.size()];
+        for (int i = 0; i < secuencia.length; i++) {
+            secuencia[i] = jugadas.get(i);
+        }
+        ReproductorPartida reproductor = new ReproductorPartida(nuevoArbitro(), secuencia, 5);
+        assertEquals(secuencia.length, reproductor.obtenerNumeroJugadas());
+        for (int i = 0; i < 200; i++) {
+            int numero = aleatorio.nextInt(secuencia.length + 1);
+            assertJugada(posiciones.get(numero), reproductor.irAJugada(numero));
+        }
+        for (int numero = 0; numero <= secuencia.length; numero++) {
+            assertJugada(posiciones.get(numero), reproductor.irAJugada(numero));
+        }
+        assertThrows(IllegalArgumentException.class, () -> reproductor.irAJugada(secuencia.length + 1));
+    }
+
+    @Test
+    void pararEnJugadaIlegal() {
+        ReproductorPartida reproductor = new ReproductorPartida(nuevoArbitro(), new int[]{0, 1, 2, 1, 3}, 2);
+        assertEquals(3, reproductor.obtenerNumeroJugadas());
+        assertEquals(Color.BLANCO, reproductor.irAJugada(3).obtenerColor(0, 1));
+        assertTrue(reproductor.irAJugada(0).estaVacia(0, 0));
+    }
+
+    @Test
+    void irAJugadaTableroGrande() {
+        int columnas = 200;
+        int filasLlenas = 150;
+        int[] secuencia = new int[filasLlenas * columnas];
+        int numero = 0;
+        for (int i = 0; i < filasLlenas; i++) {
+            for (int j = 0; j < columnas; j += 4) {
+                for (int desplazamiento : new int[]{0, 2, 1, 3}) {
+                    secuencia[numero++] = i * columnas + j + desplazamiento;
+                }
+            }
+        }
+        ArbitroAtariGo arbitro = new ArbitroAtariGoBasico(new Tablero(columnas, columnas));
+        arbitro.registrarJugadoresEnOrden("Alice");
+        arbitro.registrarJugadoresEnOrden("Bob");
+        ReproductorPartida reproductor = new ReproductorPartida(arbitro, secuencia, 1000);
+        assertEquals(secuencia.length, reproductor.obtenerNumeroJugadas());
+        assertJugada(arbitro.obtenerTablero().obtenerInstantanea(), reproductor.irAJugada(secuencia.length));
+        Random aleatorio = new Random(7);
+        assertTimeout(Duration.ofSeconds(2), () -> {
+            for (int i = 0; i < 400; i++) {
+                int jugada = secuencia.length - 1 - aleatorio.nextInt(1000);
+                assertEquals(columnas * columnas - jugada, reproductor.irAJugada(jugada).obtenerNumeroCeldasVacias());
+            }
+        });
+    }
+
+    /**
+     * Crea un árbitro con superko en un tablero de 7x7 y dos jugadores.
+     *
+     * @return Árbitro sin jugadas.
+     */
+    private static ArbitroAtariGo nuevoArbitro() {
+        ArbitroAtariGo arbitro = new ArbitroAtariGoSuperko(new Tablero(7, 7), 4);
+        arbitro.registrarJugadoresEnOrden("Alice");
+        arbitro.registrarJugadoresEnOrden("Bob");
+        return arbitro;
+    }
+
+    /**
+     * Comprueba que dos posiciones tienen las mismas piedras y capturas.
+     *
+     * @param esperada Posición esperada.
+     * @param obtenida Posición obtenida.
+     */
+    private static void assertJugada(Instantanea esperada, Instantanea obtenida) {
+        assertTrue(esperada.esIgual(obtenida));
+        for (Color color : Color.values()) {
+            assertEquals(esperada.obtenerNumeroPiedrasCapturadas(color), obtenida.obtenerNumeroPiedrasCapturadas(color));
+        }
+    }
+}
@@ -44,6 +44,21 @@ class CeldaTest {
         assertNotNull(celda.obtenerPiedra());
     }
 
+    @Test
+    void establecerColor() {
+        Celda celda = new Celda(2, 3);
+        celda.establecerColor(Color.NEGRO);
+        assertFalse(celda.estaVacia());
+        assertEquals(Color.NEGRO, celda.obtenerColorDePiedra());
+        Piedra piedra = celda.obtenerPiedra();
+        assertEquals(Color.NEGRO, piedra.obtenerColor());
+        assertSame(celda, piedra.obtenerCelda());
+        assertSame(piedra, celda.obtenerPiedra());
+        celda.establecerColor(null);
+        assertTrue(celda.estaVacia());
+        assertNull(celda.obtenerPiedra());
+    }
+
     @Test
     void estaVacia() {
         Celda celda = new Celda(4, 4);
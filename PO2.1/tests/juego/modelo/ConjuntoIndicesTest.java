@@ -0,0 +1,54 @@
+package juego.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * [juego.modelo.ConjuntoIndicesTest] Created by Roderick D. on 2018/01/20.
+ *
+ * @author Roderick D.
+ * rorik.me
+ * github.com/rorik
+ */
+class ConjuntoIndicesTest {
+    @Test
+    void añadirYQuitar() {
+        ConjuntoIndices conjunto = new ConjuntoIndices(10);
+        conjunto.añadir(3);
+        conjunto.añadir(7);
+        conjunto.añadir(3);
+        assertEquals(2, conjunto.obtenerTamaño());
+        assertTrue(conjunto.contiene(7));
+        conjunto.quitar(3);
+        conjunto.quitar(5);
+        assertEquals(1, conjunto.obtenerTamaño());
+        assertFalse(conjunto.contiene(3));
+        assertEquals(7, conjunto.obtener(0));
+    }
+
+    @Test
+    void copiarDe() {
+        ConjuntoIndices conjunto = new ConjuntoIndices(5);
+        conjunto.añadir(4);
+        ConjuntoIndices copia = new ConjuntoIndices(5);
+        copia.añadir(1);
+        copia.copiarDe(conjunto);
+        assertTrue(copia.contiene(4));
+        assertFalse(copia.contiene(1));
+        assertEquals(1, copia.obtenerTamaño());
+    }
+
+    @Test
+    void ampliar() {
+        ConjuntoIndices conjunto = new ConjuntoIndices(2);
+        conjunto.añadir(1);
+        conjunto.ampliar(8);
+        assertTrue(conjunto.contiene(1));
+        assertFalse(conjunto.contiene(7));
+        conjunto.añadir(7);
+        conjunto.quitar(1);
+        assertEquals(1, conjunto.obtenerTamaño());
+        assertEquals(7, conjunto.obtener(0));
+    }
+}
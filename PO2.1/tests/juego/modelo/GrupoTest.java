@@ -23,6 +23,16 @@ class GrupoTest {
         assertEquals(grupo.obtenerId()+1, new Grupo(tablero.obtenerCelda(0,1), tablero).obtenerId());
     }
 
+    @Test
+    void obtenerIdPorTablero() {
+        Tablero tablero = new Tablero(1,2);
+        Tablero otro = new Tablero(1,2);
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(0,0));
+        otro.colocar(Color.NEGRO, otro.obtenerCelda(0,0));
+        assertEquals(0, tablero.obtenerGrupo(tablero.obtenerCelda(0,0)).obtenerId());
+        assertEquals(0, otro.obtenerGrupo(otro.obtenerCelda(0,0)).obtenerId());
+    }
+
     @Test
     void obtenerColor() {
         Tablero tablero = new Tablero(1,3);
@@ -102,6 +112,25 @@ class GrupoTest {
         assertNotNull(tablero.obtenerCelda(1,2).obtenerPiedra());
     }
 
+    @Test
+    void eliminarPiedrasTrasUnion() {
+        Tablero tablero = new Tablero(2,3);
+        Jugador jugador = new Jugador("", Color.NEGRO);
+        tablero.colocar(jugador.generarPiedra(), tablero.obtenerCelda(0,0));
+        tablero.colocar(jugador.generarPiedra(), tablero.obtenerCelda(0,2));
+        Grupo anterior = tablero.obtenerGrupo(tablero.obtenerCelda(0,0));
+        tablero.colocar(jugador.generarPiedra(), tablero.obtenerCelda(0,1));
+        assertThrows(IllegalStateException.class, anterior::eliminarPiedras);
+        assertEquals(3, tablero.obtenerNumeroPiedras(Color.NEGRO));
+        Grupo unido = tablero.obtenerGrupo(tablero.obtenerCelda(0,0));
+        unido.eliminarPiedras();
+        assertEquals(0, tablero.obtenerNumeroPiedras(Color.NEGRO));
+        assertNull(tablero.obtenerCelda(0,2).obtenerPiedra());
+        unido.eliminarPiedras();
+        anterior.eliminarPiedras();
+        assertEquals(0, tablero.obtenerNumeroPiedras(Color.NEGRO));
+    }
+
     @Test
     void generarCopiaEnOtroTablero() {
         Tablero tablero1 = new Tablero(2,2);
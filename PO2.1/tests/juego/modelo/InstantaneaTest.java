@@ -0,0 +1,153 @@
+package juego.modelo;
+
+import juego.util.CoordenadasIncorrectasException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * [juego.modelo.InstantaneaTest] Created by Roderick D. on 2018/01/20.
+ *
+ * @author Roderick D.
+ * rorik.me
+ * github.com/rorik
+ */
+class InstantaneaTest {
+    @Test
+    void obtenerColor() {
+        Tablero tablero = new Tablero(3, 4);
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(1, 2));
+        Instantanea instantanea = tablero.obtenerInstantanea();
+        assertEquals(3, instantanea.obtenerNumeroFilas());
+        assertEquals(4, instantanea.obtenerNumeroColumnas());
+        assertEquals(Color.NEGRO, instantanea.obtenerColor(1, 2));
+        assertTrue(instantanea.estaVacia(0, 0));
+        assertEquals(tablero.obtenerHash(), instantanea.obtenerHash());
+        assertThrows(CoordenadasIncorrectasException.class, () -> instantanea.obtenerColor(3, 0));
+    }
+
+    @Test
+    void esInmutable() {
+        Tablero tablero = new Tablero(2, 2);
+        tablero.colocar(Color.BLANCO, tablero.obtenerCelda(0, 0));
+        Instantanea instantanea = tablero.obtenerInstantanea();
+        assertSame(instantanea, tablero.obtenerInstantanea());
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(0, 1));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(1, 0));
+        assertEquals(Color.BLANCO, instantanea.obtenerColor(0, 0));
+        assertTrue(instantanea.estaVacia(0, 1));
+        assertEquals(0, instantanea.obtenerNumeroPiedrasCapturadas(Color.BLANCO));
+        assertNotSame(instantanea, tablero.obtenerInstantanea());
+        assertTrue(tablero.obtenerInstantanea().estaVacia(0, 0));
+        assertFalse(tablero.esIgual(instantanea));
+    }
+
+    @Test
+    void esIgual() {
+        Tablero tablero = new Tablero(3, 3);
+        Instantanea vacia = tablero.obtenerInstantanea();
+        RegistroJugada registro = tablero.aplicar(Color.NEGRO, tablero.obtenerCelda(1, 1));
+        assertFalse(tablero.esIgual(vacia));
+        Instantanea conPiedra = tablero.obtenerInstantanea();
+        tablero.deshacer(registro);
+        assertTrue(tablero.esIgual(vacia));
+        assertTrue(tablero.obtenerInstantanea().esIgual(vacia));
+        assertFalse(conPiedra.esIgual(vacia));
+    }
+
+    @Test
+    void generarTablero() {
+        Tablero tablero = new Tablero(5, 5);
+        Random aleatorio = new Random(3);
+        for (int jugada = 0; jugada < 60; jugada++) {
+            Celda celda = tablero.obtenerCelda(aleatorio.nextInt(5), aleatorio.nextInt(5));
+            if (celda.estaVacia()) {
+                tablero.colocar(Color.values()[jugada % 2], celda);
+            }
+        }
+        Instantanea instantanea = tablero.obtenerInstantanea();
+        Tablero otro = instantanea.generarTablero();
+        assertTrue(otro.esIgual(tablero));
+        assertTrue(otro.esIgual(instantanea));
+        for (Color color : Color.values()) {
+            assertEquals(tablero.obtenerNumeroPiedrasCapturadas(color), otro.obtenerNumeroPiedrasCapturadas(color));
+            assertEquals(tablero.obtenerNumeroGruposEnAtari(color), otro.obtenerNumeroGruposEnAtari(color));
+            assertEquals(tablero.obtenerGruposDelJugador(new Jugador("", color)).size(),
+                    otro.obtenerGruposDelJugador(new Jugador("", color)).size());
+        }
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                Celda celda = otro.obtenerCelda(i, j);
+                assertEquals(tablero.estaVivo(tablero.obtenerCelda(i, j)), otro.estaVivo(celda));
+            }
+        }
+        for (int i = 0; i < 25; i++) {
+            if (otro.obtenerCelda(i / 5, i % 5).estaVacia()) {
+                otro.colocar(Color.NEGRO, otro.obtenerCelda(i / 5, i % 5));
+                break;
+            }
+        }
+        assertFalse(otro.esIgual(instantanea));
+        assertTrue(tablero.esIgual(instantanea));
+    }
+
+    @Test
+    void generarTableroSegunTamaño() {
+        assertFalse(new Tablero(19, 19).obtenerInstantanea().generarTablero() instanceof TableroDisperso);
+        assertTrue(new Tablero(100, 100).obtenerInstantanea().generarTablero() instanceof TableroDisperso);
+    }
+
+    @Test
+    void cambiarEntrada() {
+        Random aleatorio = new Random(13);
+        byte[] esperada = new byte[40];
+        int[] fila = new int[40];
+        int longitud = 0;
+        for (int i = 0; i < 500; i++) {
+            int columna = aleatorio.nextInt(40);
+            byte codigo = (byte) aleatorio.nextInt(3);
+            longitud = Instantanea.cambiarEntrada(fila, longitud, columna, codigo);
+            esperada[columna] = codigo;
+            int piedras = 0;
+            for (int j = 0; j < 40; j++) {
+                int posicion = Instantanea.buscarColumna(fila, longitud, j);
+                assertEquals(esperada[j] != 0, posicion >= 0);
+                if (posicion >= 0) {
+                    assertEquals(esperada[j], Instantanea.obtenerCodigoDeEntrada(fila[posicion]));
+                    assertEquals(piedras++, posicion);
+                }
+            }
+            assertEquals(piedras, longitud);
+        }
+    }
+
+    @Test
+    void generarInstantaneaTrasJugada() {
+        Tablero tablero = new Tablero(6, 6);
+        Random aleatorio = new Random(11);
+        Instantanea encadenada = tablero.obtenerInstantanea();
+        for (int jugada = 0; jugada < 200 && !tablero.estaCompleto(); jugada++) {
+            Celda celda = tablero.obtenerCelda(aleatorio.nextInt(6), aleatorio.nextInt(6));
+            if (celda.estaVacia()) {
+                Instantanea anterior = tablero.obtenerInstantanea();
+                Color color = Color.values()[jugada % 2];
+                Instantanea siguiente = anterior.generarInstantaneaTrasJugada(color,
+                        celda.obtenerFila(), celda.obtenerColumna());
+                encadenada = encadenada.generarInstantaneaTrasJugada(color, celda.obtenerFila(), celda.obtenerColumna());
+                tablero.colocar(color, celda);
+                assertTrue(tablero.esIgual(siguiente));
+                assertTrue(tablero.esIgual(encadenada));
+                assertEquals(tablero.obtenerNumeroCeldasVacias(), encadenada.obtenerNumeroCeldasVacias());
+                assertTrue(anterior.estaVacia(celda.obtenerFila(), celda.obtenerColumna()));
+                for (Color otro : Color.values()) {
+                    assertEquals(tablero.obtenerNumeroPiedrasCapturadas(otro),
+                            siguiente.obtenerNumeroPiedrasCapturadas(otro));
+                }
+            }
+        }
+        assertThrows(CoordenadasIncorrectasException.class,
+                () -> tablero.obtenerInstantanea().generarInstantaneaTrasJugada(Color.NEGRO, 6, 0));
+    }
+}
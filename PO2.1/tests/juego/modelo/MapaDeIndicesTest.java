@@ -0,0 +1,69 @@
+package juego.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * [juego.modelo.MapaDeIndicesTest] Created by Roderick D. on 2018/01/20.
+ *
+ * @author Roderick D.
+ * rorik.me
+ * github.com/rorik
+ */
+class MapaDeIndicesTest {
+    @Test
+    void ponerYQuitar() {
+        MapaDeIndices mapa = new MapaDeIndices();
+        mapa.poner(0, 5);
+        mapa.poner(999999, 1);
+        mapa.poner(0, 6);
+        assertEquals(2, mapa.obtenerTamaño());
+        assertEquals(6, mapa.obtener(0));
+        assertEquals(-1, mapa.obtener(3));
+        mapa.quitar(0);
+        mapa.quitar(3);
+        assertEquals(1, mapa.obtenerTamaño());
+        assertEquals(-1, mapa.obtener(0));
+        assertEquals(1, mapa.obtener(999999));
+    }
+
+    @Test
+    void ponerYQuitarAleatorio() {
+        MapaDeIndices mapa = new MapaDeIndices();
+        Map<Integer, Integer> esperado = new HashMap<>();
+        Random aleatorio = new Random(23);
+        for (int i = 0; i < 20000; i++) {
+            int clave = aleatorio.nextInt(500);
+            if (aleatorio.nextInt(3) == 0) {
+                mapa.quitar(clave);
+                esperado.remove(clave);
+            } else {
+                mapa.poner(clave, i);
+                esperado.put(clave, i);
+            }
+        }
+        assertEquals(esperado.size(), mapa.obtenerTamaño());
+        for (int clave = 0; clave < 500; clave++) {
+            assertEquals(esperado.getOrDefault(clave, -1).intValue(), mapa.obtener(clave));
+        }
+    }
+
+    @Test
+    void copiarDe() {
+        MapaDeIndices mapa = new MapaDeIndices();
+        mapa.poner(4, 2);
+        MapaDeIndices copia = new MapaDeIndices();
+        copia.poner(1, 1);
+        copia.copiarDe(mapa);
+        mapa.poner(5, 3);
+        assertEquals(2, copia.obtener(4));
+        assertEquals(-1, copia.obtener(1));
+        assertEquals(-1, copia.obtener(5));
+        assertEquals(1, copia.obtenerTamaño());
+    }
+}
@@ -0,0 +1,136 @@
+package juego.modelo;
+
+import juego.util.CoordenadasIncorrectasException;
+import juego.util.Sentido;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * [juego.modelo.TableroDispersoTest] Created by Roderick D. on 2018/01/20.
+ *
+ * @author Roderick D.
+ * rorik.me
+ * github.com/rorik
+ */
+class TableroDispersoTest {
+    @Test
+    void obtenerCelda() {
+        Tablero tablero = new TableroDisperso(1000, 1000);
+        assertTrue(tablero.obtenerCelda(999, 999).estaVacia());
+        assertThrows(CoordenadasIncorrectasException.class, () -> tablero.obtenerCelda(1000, 0));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(500, 500));
+        assertSame(tablero.obtenerCelda(500, 500), tablero.obtenerCelda(500, 500));
+        assertEquals(Color.NEGRO, tablero.obtenerCelda(500, 500).obtenerColorDePiedra());
+        assertEquals(1000 * 1000 - 1, tablero.obtenerNumeroCeldasVacias());
+        assertEquals(4, tablero.obtenerGradosDeLibertad(tablero.obtenerCelda(500, 500)));
+        assertEquals(2, tablero.obtenerNumeroCeldasAdyacentes(tablero.obtenerCelda(0, 999)));
+        assertNull(tablero.obtenerCeldaAdyacente(tablero.obtenerCelda(0, 999), Sentido.DERECHA));
+        assertEquals("(1 / 999)", tablero.obtenerCeldaAdyacente(tablero.obtenerCelda(0, 999), Sentido.ABAJO).toString());
+    }
+
+    @Test
+    void capturarEnEsquina() {
+        Tablero tablero = new TableroDisperso(1000, 1000);
+        tablero.colocar(Color.BLANCO, tablero.obtenerCelda(999, 999));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(998, 999));
+        assertTrue(tablero.estaEnAtari(tablero.obtenerCelda(999, 999)));
+        assertEquals("(999 / 998)", tablero.obtenerLibertadDeGrupoEnAtari(Color.BLANCO, 0).toString());
+        RegistroJugada registro = tablero.aplicar(Color.NEGRO, tablero.obtenerCelda(999, 998));
+        assertEquals(1, tablero.obtenerNumeroPiedrasCapturadas(Color.BLANCO));
+        assertTrue(tablero.obtenerCelda(999, 999).estaVacia());
+        assertEquals(0, tablero.obtenerNumeroPiedras(Color.BLANCO));
+        tablero.deshacer(registro);
+        assertEquals(Color.BLANCO, tablero.obtenerCelda(999, 999).obtenerColorDePiedra());
+        assertEquals(0, tablero.obtenerNumeroPiedrasCapturadas(Color.BLANCO));
+    }
+
+    @Test
+    void grupoGrandeSinAtari() {
+        Tablero tablero = new TableroDisperso(1000, 1000);
+        for (int columna = 0; columna < 1000; columna++) {
+            tablero.colocar(Color.NEGRO, tablero.obtenerCelda(996, columna));
+            tablero.colocar(Color.NEGRO, tablero.obtenerCelda(998, columna));
+        }
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(997, 0));
+        assertEquals(2001, tablero.obtenerGrupo(tablero.obtenerCelda(998, 999)).obtenerTamaño());
+        assertFalse(tablero.estaEnAtari(tablero.obtenerCelda(998, 999)));
+        assertEquals(0, tablero.obtenerNumeroGruposEnAtari(Color.NEGRO));
+        tablero.colocar(Color.BLANCO, tablero.obtenerCelda(999, 999));
+        assertTrue(tablero.estaEnAtari(tablero.obtenerCelda(999, 999)));
+        assertEquals(1, tablero.obtenerNumeroGruposEnAtari(Color.BLANCO));
+        assertEquals(0, tablero.obtenerNumeroGruposEnAtari(Color.NEGRO));
+    }
+
+    @Test
+    void instantaneaDispersa() {
+        Tablero tablero = new TableroDisperso(1000, 1000);
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(500, 500));
+        Instantanea instantanea = tablero.obtenerInstantanea();
+        assertSame(instantanea.obtenerFila(0), instantanea.obtenerFila(999));
+        assertNotSame(instantanea.obtenerFila(0), instantanea.obtenerFila(500));
+        Tablero copia = tablero.generarCopia();
+        copia.colocar(Color.BLANCO, copia.obtenerCelda(0, 0));
+        assertTrue(instantanea.estaVacia(0, 0));
+        assertSame(instantanea.obtenerFila(999), copia.obtenerInstantanea().obtenerFila(999));
+        assertFalse(copia.esIgual(tablero));
+        Tablero cargado = new TableroDisperso(1000, 1000);
+        cargado.cargar(instantanea);
+        assertTrue(cargado.esIgual(tablero));
+        assertTrue(tablero.esIgual(cargado.obtenerInstantanea()));
+        assertEquals(1, instantanea.obtenerLongitudFila(500));
+        assertTrue(instantanea.obtenerFila(500).length < 1000);
+        Tablero restaurado = instantanea.generarTablero();
+        assertTrue(restaurado instanceof TableroDisperso);
+        assertTrue(restaurado.esIgual(tablero));
+        assertEquals(Color.NEGRO, restaurado.obtenerCelda(500, 500).obtenerColorDePiedra());
+    }
+
+    @Test
+    void igualQueTableroDenso() {
+        int tamaño = 6;
+        Tablero denso = new Tablero(tamaño, tamaño);
+        Tablero disperso = new TableroDisperso(tamaño, tamaño);
+        Random aleatorio = new Random(29);
+        for (int jugada = 0; jugada < 600; jugada++) {
+            int fila = aleatorio.nextInt(tamaño);
+            int columna = aleatorio.nextInt(tamaño);
+            if (!denso.obtenerCelda(fila, columna).estaVacia()) {
+                continue;
+            }
+            Color color = Color.values()[aleatorio.nextInt(2)];
+            Celda celda = disperso.obtenerCelda(fila, columna);
+            assertEquals(denso.contarCapturasDeJugada(color, celda), disperso.contarCapturasDeJugada(color, celda));
+            assertEquals(denso.contarSuicidioDeJugada(color, celda), disperso.contarSuicidioDeJugada(color, celda));
+            assertEquals(denso.obtenerHashTrasJugada(color, celda), disperso.obtenerHashTrasJugada(color, celda));
+            if (aleatorio.nextBoolean()) {
+                Tablero anterior = disperso.generarCopia();
+                disperso.deshacer(disperso.aplicar(color, celda));
+                assertTrue(disperso.esIgual(anterior));
+                assertTrue(denso.esIgual(disperso));
+            }
+            denso.colocar(color, celda);
+            disperso.colocar(color, celda);
+            assertTrue(denso.esIgual(disperso));
+            assertTrue(disperso.esIgual(denso));
+            assertTrue(disperso.esIgual(denso.obtenerInstantanea()));
+            assertTrue(disperso.comprobarGrupos());
+            for (Color otro : Color.values()) {
+                assertEquals(denso.obtenerNumeroPiedras(otro), disperso.obtenerNumeroPiedras(otro));
+                assertEquals(denso.obtenerNumeroPiedrasCapturadas(otro), disperso.obtenerNumeroPiedrasCapturadas(otro));
+                assertEquals(denso.obtenerNumeroGruposEnAtari(otro), disperso.obtenerNumeroGruposEnAtari(otro));
+                assertEquals(denso.obtenerGruposDelJugador(new Jugador("", otro)).size(),
+                        disperso.obtenerGruposDelJugador(new Jugador("", otro)).size());
+            }
+            for (int i = 0; i < tamaño; i++) {
+                for (int j = 0; j < tamaño; j++) {
+                    Celda otra = disperso.obtenerCelda(i, j);
+                    assertEquals(disperso.contarLibertadesDelGrupo(otra) == 1, disperso.estaEnAtari(otra));
+                    assertEquals(denso.estaVivo(otra), disperso.estaVivo(otra));
+                }
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package juego.modelo;
 
 import juego.util.CoordenadasIncorrectasException;
+import juego.util.Sentido;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -30,6 +33,22 @@ class TableroTest {
         assertEquals(piedra, tablero.obtenerCelda(0,0).obtenerPiedra());
     }
 
+    @Test
+    void colocarColor() {
+        Tablero tablero = new Tablero(2, 2);
+        tablero.colocar(Color.BLANCO, new Celda(0, 0));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(0, 1));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(1, 0));
+        assertTrue(tablero.obtenerCelda(0, 0).estaVacia());
+        assertEquals(1, tablero.obtenerNumeroPiedrasCapturadas(Color.BLANCO));
+        assertEquals(Color.NEGRO, tablero.obtenerCelda(0, 1).obtenerPiedra().obtenerColor());
+        assertSame(tablero.obtenerCelda(0, 1), tablero.obtenerCelda(0, 1).obtenerPiedra().obtenerCelda());
+        RegistroJugada registro = tablero.aplicar(Color.BLANCO, tablero.obtenerCelda(1, 1));
+        assertEquals(Color.BLANCO, registro.obtenerColor());
+        tablero.deshacer(registro);
+        assertTrue(tablero.obtenerCelda(1, 1).estaVacia());
+    }
+
     @Test
     void obtenerCelda() {
         Tablero tablero = new Tablero(1, 1);
@@ -64,6 +83,37 @@ class TableroTest {
         assertEquals(1, tablero.obtenerNumeroPiedras(Color.BLANCO));
     }
 
+    @Test
+    void colocarCapturaVariosGrupos() {
+        Tablero tablero = new Tablero(3, 3);
+        tablero.colocar(Color.BLANCO, tablero.obtenerCelda(0, 0));
+        tablero.colocar(Color.BLANCO, tablero.obtenerCelda(0, 2));
+        tablero.colocar(Color.BLANCO, tablero.obtenerCelda(2, 2));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(1, 0));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(1, 2));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(0, 1));
+        assertTrue(tablero.obtenerCelda(0, 0).estaVacia());
+        assertTrue(tablero.obtenerCelda(0, 2).estaVacia());
+        assertFalse(tablero.obtenerCelda(2, 2).estaVacia());
+        assertEquals(2, tablero.obtenerNumeroPiedrasCapturadas(Color.BLANCO));
+        assertEquals(0, tablero.obtenerNumeroPiedrasCapturadas(Color.NEGRO));
+    }
+
+    @Test
+    void obtenerNumeroCeldasVacias() {
+        Tablero tablero = new Tablero(2, 2);
+        assertEquals(4, tablero.obtenerNumeroCeldasVacias());
+        tablero.colocar(Color.BLANCO, tablero.obtenerCelda(0, 0));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(0, 1));
+        RegistroJugada registro = tablero.aplicar(Color.NEGRO, tablero.obtenerCelda(1, 0));
+        assertEquals(2, tablero.obtenerNumeroCeldasVacias());
+        assertEquals(0, tablero.obtenerNumeroPiedras(Color.BLANCO));
+        tablero.deshacer(registro);
+        assertEquals(2, tablero.obtenerNumeroCeldasVacias());
+        assertEquals(1, tablero.obtenerNumeroPiedras(Color.BLANCO));
+        assertEquals(2, tablero.generarCopia().obtenerNumeroCeldasVacias());
+    }
+
     @Test
     void obtenerNumeroFilas() {
         assertEquals(3, new Tablero(3, 1).obtenerNumeroFilas());
@@ -142,4 +192,288 @@ class TableroTest {
         assertEquals(1, tablero.obtenerGruposDelJugador(jugadorBlanco).size());
     }
 
-}
\ No newline at end of file
+    @Test
+    void esIgual() {
+        Tablero tablero = new Tablero(3, 3);
+        tablero.colocar(new Piedra(Color.NEGRO), tablero.obtenerCelda(1, 1));
+        Tablero copia = tablero.generarCopia();
+        assertTrue(tablero.esIgual(copia));
+        copia.colocar(new Piedra(Color.BLANCO), copia.obtenerCelda(0, 1));
+        assertFalse(tablero.esIgual(copia));
+        assertFalse(tablero.esIgual(new Tablero(3, 4)));
+        assertFalse(new Tablero(3, 4).esIgual(new Tablero(4, 3)));
+        assertTrue(new Tablero(3, 4).esIgual(new TableroDisperso(3, 4)));
+        assertFalse(new TableroDisperso(3, 4).esIgual(new Tablero(4, 3)));
+    }
+
+    @Test
+    void obtenerGruposDelJugadorCadenaLarga() {
+        Tablero tablero = new Tablero(19, 19);
+        Jugador jugador = new Jugador("n", Color.NEGRO);
+        for (int i = 0; i < 19; i += 2) {
+            tablero.colocar(jugador.generarPiedra(), tablero.obtenerCelda(i, 0));
+        }
+        assertEquals(10, tablero.obtenerGruposDelJugador(jugador).size());
+        for (int i = 1; i < 19; i += 2) {
+            tablero.colocar(jugador.generarPiedra(), tablero.obtenerCelda(i, 0));
+        }
+        assertEquals(1, tablero.obtenerGruposDelJugador(jugador).size());
+        assertEquals(19, tablero.obtenerGruposDelJugador(jugador).get(0).obtenerTamaño());
+        for (int i = 0; i < 19; i++) {
+            tablero.colocar(new Piedra(Color.BLANCO), tablero.obtenerCelda(i, 1));
+        }
+        assertEquals(0, tablero.obtenerGruposDelJugador(jugador).size());
+        assertEquals(19, tablero.obtenerNumeroPiedrasCapturadas(Color.NEGRO));
+    }
+
+    @Test
+    void libertadesIncrementales() {
+        Tablero tablero = new Tablero(9, 9);
+        Random aleatorio = new Random(20180120);
+        for (int jugada = 0; jugada < 400; jugada++) {
+            Celda celda = elegirCelda(tablero, aleatorio);
+            if (celda.estaVacia()) {
+                tablero.colocar(new Piedra(Color.values()[jugada % 2]), celda);
+            }
+            assertLibertades(tablero);
+        }
+    }
+
+    @Test
+    void obtenerHash() {
+        Tablero tablero = new Tablero(3, 3);
+        assertEquals(0, tablero.obtenerHash());
+        tablero.colocar(new Piedra(Color.NEGRO), tablero.obtenerCelda(0, 1));
+        long conNegra = tablero.obtenerHash();
+        assertNotEquals(0, conNegra);
+        assertEquals(conNegra, tablero.generarCopia().obtenerHash());
+        Tablero otro = new Tablero(3, 3);
+        otro.colocar(new Piedra(Color.BLANCO), otro.obtenerCelda(0, 1));
+        assertNotEquals(conNegra, otro.obtenerHash());
+        tablero.colocar(new Piedra(Color.BLANCO), tablero.obtenerCelda(0, 0));
+        tablero.colocar(new Piedra(Color.NEGRO), tablero.obtenerCelda(1, 0));
+        Tablero esperado = new Tablero(3, 3);
+        esperado.colocar(new Piedra(Color.NEGRO), esperado.obtenerCelda(1, 0));
+        esperado.colocar(new Piedra(Color.NEGRO), esperado.obtenerCelda(0, 1));
+        assertEquals(esperado.obtenerHash(), tablero.obtenerHash());
+        assertTrue(esperado.esIgual(tablero));
+    }
+
+    @Test
+    void aplicarYDeshacer() {
+        Tablero tablero = new Tablero(2, 3);
+        tablero.colocar(new Piedra(Color.NEGRO), tablero.obtenerCelda(0, 0));
+        tablero.colocar(new Piedra(Color.BLANCO), tablero.obtenerCelda(1, 0));
+        Tablero anterior = tablero.generarCopia();
+        RegistroJugada registro = tablero.aplicar(new Piedra(Color.BLANCO), tablero.obtenerCelda(0, 1));
+        assertEquals(1, registro.obtenerNumeroPiedrasCapturadas());
+        assertEquals(1, tablero.obtenerNumeroPiedrasCapturadas(Color.NEGRO));
+        assertTrue(tablero.obtenerCelda(0, 0).estaVacia());
+        tablero.deshacer(registro);
+        assertTrue(tablero.esIgual(anterior));
+        assertEquals(0, tablero.obtenerNumeroPiedrasCapturadas(Color.NEGRO));
+        assertTrue(tablero.obtenerCelda(0, 1).estaVacia());
+        assertEquals(Color.NEGRO, tablero.obtenerCelda(0, 0).obtenerColorDePiedra());
+    }
+
+    @Test
+    void aplicarYDeshacerAleatorio() {
+        Tablero tablero = new Tablero(7, 7);
+        Random aleatorio = new Random(5);
+        for (int jugada = 0; jugada < 300; jugada++) {
+            Celda celda = elegirCelda(tablero, aleatorio);
+            if (!celda.estaVacia()) {
+                continue;
+            }
+            Tablero anterior = tablero.generarCopia();
+            Color color = Color.values()[jugada % 2];
+            RegistroJugada registro = tablero.aplicar(new Piedra(color), celda);
+            tablero.deshacer(registro);
+            assertTrue(tablero.esIgual(anterior));
+            assertEquals(anterior.obtenerHash(), tablero.obtenerHash());
+            for (Color otro : Color.values()) {
+                assertEquals(anterior.obtenerNumeroPiedrasCapturadas(otro), tablero.obtenerNumeroPiedrasCapturadas(otro));
+            }
+            assertLibertades(tablero);
+            for (int i = 0; i < 7; i++) {
+                for (int j = 0; j < 7; j++) {
+                    Celda otra = tablero.obtenerCelda(i, j);
+                    if (!otra.estaVacia()) {
+                        assertEquals(anterior.obtenerGrupo(otra).obtenerTamaño(), tablero.obtenerGrupo(otra).obtenerTamaño());
+                    }
+                }
+            }
+            tablero.colocar(new Piedra(color), celda);
+        }
+    }
+
+    @Test
+    void obtenerGrupo() {
+        Tablero tablero = new Tablero(3, 3);
+        assertNull(tablero.obtenerGrupo(tablero.obtenerCelda(0, 0)));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(0, 0));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(0, 2));
+        Grupo grupo = tablero.obtenerGrupo(tablero.obtenerCelda(0, 0));
+        assertSame(grupo, tablero.obtenerGrupo(new Celda(0, 0)));
+        assertEquals(1, grupo.obtenerTamaño());
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(0, 1));
+        Grupo unido = tablero.obtenerGrupo(tablero.obtenerCelda(0, 2));
+        assertNotSame(grupo, unido);
+        assertEquals(3, unido.obtenerTamaño());
+        assertSame(unido, tablero.obtenerGrupo(tablero.obtenerCelda(0, 0)));
+        assertTrue(unido.contiene(tablero.obtenerCelda(0, 1)));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(2, 2));
+        unido.añadirCeldas(tablero.obtenerGrupo(tablero.obtenerCelda(2, 2)));
+        Grupo descartado = tablero.obtenerGrupo(tablero.obtenerCelda(0, 0));
+        assertNotSame(unido, descartado);
+        assertEquals(3, descartado.obtenerTamaño());
+        assertSame(descartado, tablero.obtenerGrupo(tablero.obtenerCelda(0, 1)));
+        assertEquals(1, tablero.obtenerGrupo(tablero.obtenerCelda(2, 2)).obtenerTamaño());
+    }
+
+    @Test
+    void estaEnAtari() {
+        Tablero tablero = new Tablero(3, 3);
+        tablero.colocar(Color.BLANCO, tablero.obtenerCelda(0, 0));
+        tablero.colocar(Color.BLANCO, tablero.obtenerCelda(0, 1));
+        assertFalse(tablero.estaEnAtari(tablero.obtenerCelda(0, 0)));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(1, 0));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(1, 1));
+        assertTrue(tablero.estaEnAtari(tablero.obtenerCelda(0, 1)));
+        assertEquals("(0 / 2)", tablero.obtenerUnicaLibertad(tablero.obtenerCelda(0, 0)).toString());
+        assertEquals(1, tablero.obtenerNumeroGruposEnAtari(Color.BLANCO));
+        assertEquals(2, tablero.obtenerGruposEnAtari(Color.BLANCO).get(0).obtenerTamaño());
+        assertEquals("(0 / 2)", tablero.obtenerLibertadDeGrupoEnAtari(Color.BLANCO, 0).toString());
+        assertEquals(0, tablero.obtenerNumeroGruposEnAtari(Color.NEGRO));
+        assertNull(tablero.obtenerUnicaLibertad(tablero.obtenerCelda(2, 2)));
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(0, 2));
+        assertEquals(0, tablero.obtenerNumeroGruposEnAtari(Color.BLANCO));
+    }
+
+    @Test
+    void estaEnAtariAleatorio() {
+        Tablero tablero = new Tablero(6, 6);
+        Random aleatorio = new Random(11);
+        for (int jugada = 0; jugada < 400; jugada++) {
+            Celda celda = elegirCelda(tablero, aleatorio);
+            if (!celda.estaVacia()) {
+                continue;
+            }
+            Color color = Color.values()[jugada % 2];
+            if (aleatorio.nextBoolean()) {
+                tablero.deshacer(tablero.aplicar(color, celda));
+            }
+            tablero.colocar(color, celda);
+            for (Color otro : Color.values()) {
+                int piedrasEnAtari = 0;
+                for (int i = 0; i < 6; i++) {
+                    for (int j = 0; j < 6; j++) {
+                        Celda otra = tablero.obtenerCelda(i, j);
+                        boolean atari = tablero.contarLibertadesDelGrupo(otra) == 1;
+                        assertEquals(atari, tablero.estaEnAtari(otra));
+                        if (atari && otra.obtenerColorDePiedra() == otro) {
+                            assertTrue(tablero.obtenerUnicaLibertad(otra).estaVacia());
+                            piedrasEnAtari++;
+                        }
+                    }
+                }
+                int piedrasEnGrupos = 0;
+                for (Grupo grupo : tablero.obtenerGruposEnAtari(otro)) {
+                    piedrasEnGrupos += grupo.obtenerTamaño();
+                }
+                assertEquals(piedrasEnAtari, piedrasEnGrupos);
+            }
+            Tablero copia = tablero.generarCopia();
+            assertEquals(tablero.obtenerNumeroGruposEnAtari(Color.NEGRO), copia.obtenerNumeroGruposEnAtari(Color.NEGRO));
+        }
+    }
+
+    @Test
+    void analizarJugadaSinColocar() {
+        Tablero tablero = new Tablero(5, 5);
+        Random aleatorio = new Random(19);
+        for (int jugada = 0; jugada < 300; jugada++) {
+            Color color = Color.values()[aleatorio.nextInt(2)];
+            for (int i = 0; i < 5; i++) {
+                for (int j = 0; j < 5; j++) {
+                    Celda celda = tablero.obtenerCelda(i, j);
+                    if (celda.estaVacia()) {
+                        Color rival = color == Color.NEGRO ? Color.BLANCO : Color.NEGRO;
+                        int capturadasRival = tablero.obtenerNumeroPiedrasCapturadas(rival);
+                        int capturadasPropias = tablero.obtenerNumeroPiedrasCapturadas(color);
+                        int capturas = tablero.contarCapturasDeJugada(color, celda);
+                        int suicidio = tablero.contarSuicidioDeJugada(color, celda);
+                        long hash = tablero.obtenerHashTrasJugada(color, celda);
+                        RegistroJugada registro = tablero.aplicar(color, celda);
+                        assertEquals(tablero.obtenerNumeroPiedrasCapturadas(rival) - capturadasRival, capturas);
+                        assertEquals(tablero.obtenerNumeroPiedrasCapturadas(color) - capturadasPropias, suicidio);
+                        assertEquals(tablero.obtenerHash(), hash);
+                        tablero.deshacer(registro);
+                    }
+                }
+            }
+            Celda celda = elegirCelda(tablero, aleatorio);
+            if (celda.estaVacia()) {
+                tablero.colocar(color, celda);
+            }
+        }
+    }
+
+    @Test
+    void comprobarGrupos() {
+        Tablero tablero = new Tablero(9, 9);
+        Random aleatorio = new Random(31);
+        for (int jugada = 0; jugada < 300; jugada++) {
+            Celda celda = elegirCelda(tablero, aleatorio);
+            if (celda.estaVacia()) {
+                tablero.colocar(Color.values()[jugada % 2], celda);
+                assertTrue(tablero.comprobarGrupos());
+            }
+        }
+        assertTrue(tablero.obtenerInstantanea().generarTablero().comprobarGrupos());
+    }
+
+    @Test
+    void obtenerNumeroModificaciones() {
+        Tablero tablero = new Tablero(1, 2);
+        assertEquals(0, tablero.obtenerNumeroModificaciones());
+        tablero.colocar(Color.NEGRO, tablero.obtenerCelda(0, 0));
+        long trasColocar = tablero.obtenerNumeroModificaciones();
+        assertTrue(trasColocar > 0);
+        RegistroJugada registro = tablero.aplicar(Color.BLANCO, tablero.obtenerCelda(0, 1));
+        long trasCapturar = tablero.obtenerNumeroModificaciones();
+        assertTrue(trasCapturar > trasColocar);
+        tablero.deshacer(registro);
+        assertTrue(tablero.obtenerNumeroModificaciones() > trasCapturar);
+    }
+
+    @Test
+    void obtenerCeldaAdyacente() {
+        Tablero tablero = new Tablero(3, 3);
+        Celda centro = tablero.obtenerCelda(1, 1);
+        assertEquals(4, tablero.obtenerNumeroCeldasAdyacentes(centro));
+        assertEquals(2, tablero.obtenerNumeroCeldasAdyacentes(tablero.obtenerCelda(0, 2)));
+        for (Sentido sentido : Sentido.values()) {
+            assertSame(tablero.obtenerCeldasAdyacentes(centro).get(sentido.ordinal()),
+                    tablero.obtenerCeldaAdyacente(centro, sentido));
+        }
+        assertEquals("(1 / 0)", tablero.obtenerCeldaAdyacente(centro, Sentido.IZQUIERDA).toString());
+        assertEquals("(2 / 1)", tablero.obtenerCeldaAdyacente(centro, Sentido.ABAJO).toString());
+        assertNull(tablero.obtenerCeldaAdyacente(tablero.obtenerCelda(0, 2), Sentido.ARRIBA));
+        assertNull(tablero.obtenerCeldaAdyacente(tablero.obtenerCelda(0, 2), Sentido.DERECHA));
+    }
+
+    private static Celda elegirCelda(Tablero tablero, Random aleatorio) {
+        return tablero.obtenerCelda(aleatorio.nextInt(tablero.obtenerNumeroFilas()),
+                aleatorio.nextInt(tablero.obtenerNumeroColumnas()));
+    }
+
+    private static void assertLibertades(Tablero tablero) {
+        for (int i = 0; i < tablero.obtenerNumeroFilas(); i++) {
+            for (int j = 0; j < tablero.obtenerNumeroColumnas(); j++) {
+                Celda celda = tablero.obtenerCelda(i, j);
+                assertEquals(tablero.contarLibertadesDelGrupo(celda) > 0, tablero.estaVivo(celda));
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package juego.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * [juego.util.ConjuntoDeHashesTest] Created by Roderick D. on 2018/01/20.
+ *
+ * @author Roderick D.
+ * rorik.me
+ * github.com/rorik
+ */
+class ConjuntoDeHashesTest {
+    @Test
+    void añadir() {
+        ConjuntoDeHashes conjunto = new ConjuntoDeHashes();
+        assertTrue(conjunto.añadir(42L));
+        assertFalse(conjunto.añadir(42L));
+        assertTrue(conjunto.añadir(0L));
+        assertFalse(conjunto.añadir(0L));
+        assertEquals(2, conjunto.obtenerTamaño());
+        assertTrue(conjunto.contiene(0L));
+        assertFalse(conjunto.contiene(-1L));
+    }
+
+    @Test
+    void añadirMuchos() {
+        ConjuntoDeHashes conjunto = new ConjuntoDeHashes();
+        Random aleatorio = new Random(7);
+        long[] valores = new long[5000];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = aleatorio.nextLong();
+            conjunto.añadir(valores[i]);
+        }
+        assertEquals(valores.length, conjunto.obtenerTamaño());
+        for (long valor : valores) {
+            assertTrue(conjunto.contiene(valor));
+        }
+        assertFalse(conjunto.contiene(valores[0] + 1));
+    }
+
+    @Test
+    void quitar() {
+        ConjuntoDeHashes conjunto = new ConjuntoDeHashes();
+        Random aleatorio = new Random(13);
+        long[] valores = new long[2000];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = aleatorio.nextLong();
+            conjunto.añadir(valores[i]);
+        }
+        conjunto.añadir(0L);
+        for (int i = 0; i < valores.length; i += 2) {
+            assertTrue(conjunto.quitar(valores[i]));
+            assertFalse(conjunto.quitar(valores[i]));
+        }
+        assertTrue(conjunto.quitar(0L));
+        assertFalse(conjunto.contiene(0L));
+        assertEquals(valores.length / 2, conjunto.obtenerTamaño());
+        for (int i = 0; i < valores.length; i++) {
+            assertEquals(i % 2 == 1, conjunto.contiene(valores[i]));
+        }
+    }
+}
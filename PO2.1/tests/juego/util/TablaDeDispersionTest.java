@@ -0,0 +1,73 @@
+package juego.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * [juego.util.TablaDeDispersionTest] Created by Roderick D. on 2018/01/20.
+ *
+ * @author Roderick D.
+ * rorik.me
+ * github.com/rorik
+ */
+class TablaDeDispersionTest {
+    @Test
+    void ponerYQuitar() {
+        TablaDeDispersion tabla = new TablaDeDispersion();
+        assertTrue(tabla.poner(0L, 5));
+        assertTrue(tabla.poner(-7L, 1));
+        assertFalse(tabla.poner(0L, 6));
+        assertEquals(2, tabla.obtenerTamaño());
+        assertEquals(6, tabla.obtener(0L));
+        assertEquals(1, tabla.obtener(-7L));
+        assertEquals(TablaDeDispersion.AUSENTE, tabla.obtener(3L));
+        assertTrue(tabla.quitar(0L));
+        assertFalse(tabla.quitar(0L));
+        assertFalse(tabla.quitar(3L));
+        assertEquals(1, tabla.obtenerTamaño());
+        assertFalse(tabla.contiene(0L));
+        assertTrue(tabla.contiene(-7L));
+    }
+
+    @Test
+    void ponerYQuitarAleatorio() {
+        TablaDeDispersion tabla = new TablaDeDispersion();
+        Map<Long, Integer> esperado = new HashMap<>();
+        Random aleatorio = new Random(31);
+        for (int i = 0; i < 50000; i++) {
+            long clave = aleatorio.nextInt(800) - 400L << 40;
+            if (aleatorio.nextInt(3) == 0) {
+                assertEquals(esperado.remove(clave) != null, tabla.quitar(clave));
+            } else {
+                assertEquals(esperado.put(clave, i) == null, tabla.poner(clave, i));
+            }
+        }
+        assertEquals(esperado.size(), tabla.obtenerTamaño());
+        for (long i = -400; i < 400; i++) {
+            long clave = i << 40;
+            assertEquals(esperado.getOrDefault(clave, TablaDeDispersion.AUSENTE).intValue(), tabla.obtener(clave));
+        }
+    }
+
+    @Test
+    void copiarDe() {
+        TablaDeDispersion tabla = new TablaDeDispersion();
+        tabla.poner(0L, 2);
+        tabla.poner(9L, 4);
+        TablaDeDispersion copia = new TablaDeDispersion();
+        copia.poner(1L, 1);
+        copia.copiarDe(tabla);
+        tabla.quitar(0L);
+        tabla.poner(5L, 3);
+        assertEquals(2, copia.obtener(0L));
+        assertEquals(4, copia.obtener(9L));
+        assertFalse(copia.contiene(1L));
+        assertFalse(copia.contiene(5L));
+        assertEquals(2, copia.obtenerTamaño());
+    }
+}